@@ -43,6 +43,7 @@ import android.widget.ListView;
 
 import ticwear.design.R;
 import ticwear.design.internal.app.AlertController;
+import ticwear.design.internal.app.AlertDialogShells;
 import ticwear.design.internal.app.AlertController.DelayConfirmRequest;
 import ticwear.design.utils.ThemeUtils;
 import ticwear.design.widget.TicklableRecyclerView;
@@ -400,6 +401,7 @@ public class AlertDialog extends Dialog implements DialogInterface {
     public static class Builder {
         private final AlertController.AlertParams P;
         private int mTheme;
+        private final Context mParentContext;
 
         /**
          * Creates a builder for an alert dialog that uses the default alert
@@ -445,6 +447,7 @@ public class AlertDialog extends Dialog implements DialogInterface {
             P = new AlertController.AlertParams(new ContextThemeWrapper(
                     context, resolveDialogTheme(context, themeResId)));
             mTheme = themeResId;
+            mParentContext = context;
         }
 
         /**
@@ -1144,6 +1147,53 @@ public class AlertDialog extends Dialog implements DialogInterface {
         }
 
 
+        /**
+         * Prepares the view hierarchy of the dialog on a background inflater, so a
+         * later {@link #create()} or {@link #show()} installs it instead of inflating
+         * on the UI thread. Call it as early as the dialog is known to be shown, e.g.
+         * when the screen that may show it is created.
+         * <p>
+         * If the preparation is not finished when the dialog is created, the dialog
+         * inflates its views as usual. The views are prepared with the context and
+         * theme of this builder.
+         *
+         * @return This Builder object to allow for chaining of calls to set methods
+         * @see #prewarm(Context, int)
+         */
+        public Builder prepare() {
+            AlertDialogShells.prepare(mParentContext, mTheme,
+                    getDialogContext(P.mContext, mTheme), false);
+            return this;
+        }
+
+        /**
+         * Keeps a dialog view hierarchy of the given theme prepared on a background
+         * inflater for the whole process, and prepares another one each time a dialog
+         * of the theme takes it. Use for dialogs that are shown frequently.
+         * <p>
+         * Only dialogs built with the same context and theme take the hierarchy, and
+         * the hierarchies of an activity are dropped when it is destroyed.
+         *
+         * @param context The parent context, as in {@link #Builder(Context, int)}.
+         * @param themeResId The dialog theme, as in {@link #Builder(Context, int)}.
+         * @see AlertDialogShells#clear()
+         */
+        public static void prewarm(Context context, @StyleRes int themeResId) {
+            // Wrap as a builder does, so the views resolve the same attributes.
+            final Context builderContext = new ContextThemeWrapper(
+                    context, resolveDialogTheme(context, themeResId));
+            AlertDialogShells.prepare(context, themeResId,
+                    getDialogContext(builderContext, themeResId), true);
+        }
+
+        /**
+         * @return The context a dialog created on the builder context is themed with.
+         */
+        private static Context getDialogContext(Context builderContext, @StyleRes int themeResId) {
+            return new ContextThemeWrapper(builderContext,
+                    resolveDialogTheme(builderContext, themeResId));
+        }
+
         /**
          * Creates an {@link AlertDialog} with the arguments supplied to this
          * builder.
@@ -1155,6 +1205,7 @@ public class AlertDialog extends Dialog implements DialogInterface {
         public AlertDialog create() {
             // Context has already been wrapped with the appropriate theme.
             final AlertDialog dialog = new AlertDialog(P.mContext, mTheme);
+            dialog.mAlert.setShellSource(mParentContext, mTheme);
             P.apply(dialog.mAlert);
             dialog.setCancelable(P.mCancelable);
             if (P.mCancelable) {
@@ -26,8 +26,11 @@ import android.media.RingtoneManager;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
 import android.provider.MediaStore;
 import android.provider.Settings;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -65,12 +68,18 @@ public final class RingtonePickerActivity extends AlertActivity implements
 
     private static final boolean SHOW_BUTTONS = false;
 
+    /** Number of prepared ringtones kept around the current position. */
+    private static final int PREPARED_RINGTONE_CACHE_SIZE = 3;
+
     private RingtoneManager mRingtoneManager;
     private int mType;
 
     private Cursor mCursor;
     private Handler mHandler;
 
+    private HandlerThread mPreviewThread;
+    private PreviewHandler mPreviewHandler;
+
     private WithHeaderCursorAdapter mWithHeaderCursorAdapter;
 
     /** The position in the list of the 'Silent' item. */
@@ -100,24 +109,11 @@ public final class RingtonePickerActivity extends AlertActivity implements
     /** The Uri to play when the 'Default' item is clicked. */
     private Uri mUriForDefaultItem;
 
-    /**
-     * A Ringtone for the default ringtone. In most cases, the RingtoneManager
-     * will stop the previous ringtone. However, the RingtoneManager doesn't
-     * manage the default ringtone for us, so we should stop this one manually.
-     */
-    private Ringtone mDefaultRingtone;
-
-    /**
-     * The ringtone that's currently playing, unless the currently playing one is the default
-     * ringtone.
-     */
-    private Ringtone mCurrentRingtone;
-
     /**
      * Keep the currently playing ringtone around when changing orientation, so that it
      * can be stopped later, after the activity is recreated.
      */
-    private static Ringtone sPlayingRingtone;
+    private static volatile Ringtone sPlayingRingtone;
 
     private DialogInterface.OnClickListener mRingtoneClickListener =
             new DialogInterface.OnClickListener() {
@@ -143,6 +139,11 @@ public final class RingtonePickerActivity extends AlertActivity implements
 
         mHandler = new Handler();
 
+        // Preparing a ringtone prepares a media player, keep it off the UI thread.
+        mPreviewThread = new HandlerThread(TAG);
+        mPreviewThread.start();
+        mPreviewHandler = new PreviewHandler(mPreviewThread, getApplicationContext());
+
         Intent intent = getIntent();
 
         /*
@@ -174,6 +175,7 @@ public final class RingtonePickerActivity extends AlertActivity implements
 
         // The volume keys will control the stream that we are choosing a ringtone for
         setVolumeControlStream(mRingtoneManager.inferStreamType());
+        mPreviewHandler.setStreamType(mRingtoneManager.inferStreamType());
 
         // Get the URI whose list item should have a checkmark
         mExistingUri = intent
@@ -272,7 +274,7 @@ public final class RingtonePickerActivity extends AlertActivity implements
         boolean positiveResult = which == DialogInterface.BUTTON_POSITIVE;
 
         // Stop playing the previous ringtone
-        mRingtoneManager.stopPreviousRingtone();
+        stopAnyPlayingRingtone();
 
         if (positiveResult) {
             setPositiveResult();
@@ -324,33 +326,18 @@ public final class RingtonePickerActivity extends AlertActivity implements
     }
 
     public void run() {
-        stopAnyPlayingRingtone();
-        if (mSampleRingtonePos == mSilentPos) {
-            return;
-        }
-
-        Ringtone ringtone;
-        if (mSampleRingtonePos == mDefaultRingtonePos) {
-            if (mDefaultRingtone == null) {
-                mDefaultRingtone = RingtoneManager.getRingtone(this, mUriForDefaultItem);
-            }
-           /*
-            * Stream type of mDefaultRingtone is not set explicitly here.
-            * It should be set in accordance with mRingtoneManager of this Activity.
-            */
-            if (mDefaultRingtone != null) {
-                mDefaultRingtone.setStreamType(mRingtoneManager.inferStreamType());
-            }
-            ringtone = mDefaultRingtone;
-            mCurrentRingtone = null;
-        } else {
-            ringtone = mRingtoneManager.getRingtone(getRingtoneManagerPosition(mSampleRingtonePos));
-            mCurrentRingtone = ringtone;
-        }
+        // Uris are resolved here, as the cursor belongs to the UI thread.
+        final int position = mSampleRingtonePos;
+        mPreviewHandler.play(getRingtoneUri(position),
+                getRingtoneUri(position - 1), getRingtoneUri(position + 1));
+    }
 
-        if (ringtone != null) {
-            ringtone.play();
-        }
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mHandler.removeCallbacks(this);
+        mPreviewHandler.release();
+        mPreviewThread.quitSafely();
     }
 
     @Override
@@ -372,26 +359,40 @@ public final class RingtonePickerActivity extends AlertActivity implements
     }
 
     private void saveAnyPlayingRingtone() {
-        if (mDefaultRingtone != null && mDefaultRingtone.isPlaying()) {
-            sPlayingRingtone = mDefaultRingtone;
-        } else if (mCurrentRingtone != null && mCurrentRingtone.isPlaying()) {
-            sPlayingRingtone = mCurrentRingtone;
+        Ringtone ringtone = mPreviewHandler.getPlayingRingtone();
+        if (ringtone != null && ringtone.isPlaying()) {
+            sPlayingRingtone = ringtone;
         }
     }
 
     private void stopAnyPlayingRingtone() {
-        if (sPlayingRingtone != null && sPlayingRingtone.isPlaying()) {
-            sPlayingRingtone.stop();
-        }
-        sPlayingRingtone = null;
+        mHandler.removeCallbacks(this);
 
-        if (mDefaultRingtone != null && mDefaultRingtone.isPlaying()) {
-            mDefaultRingtone.stop();
+        Ringtone playing = sPlayingRingtone;
+        sPlayingRingtone = null;
+        if (playing != null && playing.isPlaying()) {
+            playing.stop();
         }
 
-        if (mRingtoneManager != null) {
-            mRingtoneManager.stopPreviousRingtone();
+        mPreviewHandler.stop();
+    }
+
+    /**
+     * @return Uri of the ringtone at given list position, or null for 'Silent' and
+     * positions out of the list.
+     */
+    private Uri getRingtoneUri(int listPos) {
+        if (listPos < 0 || listPos == mSilentPos) {
+            return null;
+        }
+        if (listPos == mDefaultRingtonePos) {
+            return mUriForDefaultItem;
+        }
+        int pos = getRingtoneManagerPosition(listPos);
+        if (pos < 0 || pos >= mCursor.getCount()) {
+            return null;
         }
+        return mRingtoneManager.getRingtoneUri(pos);
     }
 
     private int getRingtoneManagerPosition(int listPos) {
@@ -406,6 +407,157 @@ public final class RingtonePickerActivity extends AlertActivity implements
         return ringtoneManagerPos + mStaticItemCount;
     }
 
+    /**
+     * Prepares and plays ringtones on a background thread.
+     * <p/>
+     * Each request gets a new generation, and requests of an older generation are
+     * dropped before and after the (slow) preparation, so only the latest selection
+     * plays. Neighbours of the selection are prepared after it, and a small LRU keeps
+     * them, so moving the selection step by step finds its ringtone ready.
+     */
+    private static class PreviewHandler extends Handler {
+
+        private static final int MSG_PLAY = 1;
+        private static final int MSG_PREPARE = 2;
+        private static final int MSG_STOP = 3;
+        private static final int MSG_RELEASE = 4;
+
+        private final Context mContext;
+
+        /** Prepared ringtones, only touched on the preview thread. */
+        private final LruCache<Uri, Ringtone> mPreparedRingtones =
+                new LruCache<Uri, Ringtone>(PREPARED_RINGTONE_CACHE_SIZE) {
+                    @Override
+                    protected void entryRemoved(boolean evicted, Uri key,
+                                                Ringtone oldValue, Ringtone newValue) {
+                        // The ringtone kept over configuration change is stopped by the
+                        // recreated activity.
+                        if (oldValue != sPlayingRingtone) {
+                            oldValue.stop();
+                        }
+                    }
+                };
+
+        private volatile int mGeneration;
+        private volatile int mStreamType = -1;
+        private volatile Ringtone mPlayingRingtone;
+        private Uri mPlayingUri;
+
+        PreviewHandler(HandlerThread thread, Context context) {
+            super(thread.getLooper());
+            mContext = context;
+        }
+
+        void setStreamType(int streamType) {
+            mStreamType = streamType;
+        }
+
+        Ringtone getPlayingRingtone() {
+            return mPlayingRingtone;
+        }
+
+        /**
+         * Play the ringtone of given uri, and prepare its neighbours. Cancels all pending
+         * requests. A null uri just stops the playing one.
+         */
+        void play(Uri uri, Uri previous, Uri next) {
+            final int generation = cancelPending();
+            sendMessage(obtainMessage(MSG_PLAY, generation, 0, uri));
+            if (next != null) {
+                sendMessage(obtainMessage(MSG_PREPARE, generation, 0, next));
+            }
+            if (previous != null) {
+                sendMessage(obtainMessage(MSG_PREPARE, generation, 0, previous));
+            }
+        }
+
+        void stop() {
+            sendMessage(obtainMessage(MSG_STOP, cancelPending(), 0));
+        }
+
+        void release() {
+            sendMessage(obtainMessage(MSG_RELEASE, cancelPending(), 0));
+        }
+
+        private int cancelPending() {
+            removeMessages(MSG_PLAY);
+            removeMessages(MSG_PREPARE);
+            return ++mGeneration;
+        }
+
+        private boolean isStale(int generation) {
+            return generation != mGeneration;
+        }
+
+        @Override
+        public void handleMessage(Message msg) {
+            switch (msg.what) {
+                case MSG_PLAY:
+                    handlePlay(msg.arg1, (Uri) msg.obj);
+                    break;
+                case MSG_PREPARE:
+                    if (!isStale(msg.arg1)) {
+                        prepare((Uri) msg.obj);
+                    }
+                    break;
+                case MSG_STOP:
+                    stopPlaying();
+                    break;
+                case MSG_RELEASE:
+                    stopPlaying();
+                    mPreparedRingtones.evictAll();
+                    break;
+            }
+        }
+
+        private void handlePlay(int generation, Uri uri) {
+            if (isStale(generation)) {
+                return;
+            }
+            stopPlaying();
+            if (uri == null) {
+                return;
+            }
+
+            Ringtone ringtone = prepare(uri);
+            // A newer selection may arrive while preparing.
+            if (ringtone == null || isStale(generation)) {
+                return;
+            }
+            mPlayingUri = uri;
+            mPlayingRingtone = ringtone;
+            ringtone.play();
+        }
+
+        private Ringtone prepare(Uri uri) {
+            Ringtone ringtone = mPreparedRingtones.get(uri);
+            if (ringtone == null) {
+                ringtone = RingtoneManager.getRingtone(mContext, uri);
+                if (ringtone == null) {
+                    return null;
+                }
+                if (mStreamType != -1) {
+                    ringtone.setStreamType(mStreamType);
+                }
+                mPreparedRingtones.put(uri, ringtone);
+            }
+            return ringtone;
+        }
+
+        private void stopPlaying() {
+            Ringtone ringtone = mPlayingRingtone;
+            if (ringtone == null) {
+                return;
+            }
+            mPlayingRingtone = null;
+            // A stopped ringtone releases its player, so it is not prepared anymore.
+            if (mPreparedRingtones.remove(mPlayingUri) == null && ringtone != sPlayingRingtone) {
+                ringtone.stop();
+            }
+            mPlayingUri = null;
+        }
+    }
+
     private class WithHeaderCursorAdapter extends CursorRecyclerViewAdapter<CursorViewHolder> {
 
         private static final int TYPE_NORMAL = 0;
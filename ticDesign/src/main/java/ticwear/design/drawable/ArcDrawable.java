@@ -16,11 +16,13 @@
 
 package ticwear.design.drawable;
 
+import android.content.res.Resources;
 import android.graphics.Path;
 import android.graphics.PixelFormat;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.view.Gravity;
 
 /**
@@ -40,9 +42,24 @@ public class ArcDrawable extends ClipPathDrawable {
         super(drawable);
     }
 
+    private ArcDrawable(@NonNull ArcState state, @Nullable Resources res) {
+        super(state, res);
+        mGravity = state.mGravity;
+    }
+
+    /**
+     * Set the gravity of arc. A drawable sharing its state should be {@link #mutate()}d
+     * before changing the gravity.
+     */
     public void setGravity(int gravity) {
         mGravity = gravity;
-        onResetPath(getClipPath(), getBounds());
+        invalidatePath();
+    }
+
+    @Nullable
+    @Override
+    protected ClipPathState onCreateConstantState(@NonNull ClipPathState orig) {
+        return getClass() == ArcDrawable.class ? new ArcState(orig, mGravity) : null;
     }
 
     @Override
@@ -76,4 +93,20 @@ public class ArcDrawable extends ClipPathDrawable {
         }
     }
 
+    private static class ArcState extends ClipPathState {
+
+        final int mGravity;
+
+        ArcState(ClipPathState orig, int gravity) {
+            super(orig);
+            mGravity = gravity;
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable(Resources res) {
+            return new ArcDrawable(this, res);
+        }
+    }
+
 }
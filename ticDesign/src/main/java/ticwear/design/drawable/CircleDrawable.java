@@ -16,12 +16,14 @@
 
 package ticwear.design.drawable;
 
+import android.content.res.Resources;
 import android.graphics.Path;
 import android.graphics.PixelFormat;
 import android.graphics.Rect;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 /**
  * An drawable to clip given drawable to a shape.
@@ -38,6 +40,17 @@ public class CircleDrawable extends ClipPathDrawable {
         super(drawable);
     }
 
+    private CircleDrawable(@NonNull ClipPathState state, @Nullable Resources res) {
+        super(state, res);
+    }
+
+    @Nullable
+    @Override
+    protected ClipPathState onCreateConstantState(@NonNull ClipPathState orig) {
+        // Subclasses may reshape the path, and can not be created by our state.
+        return getClass() == CircleDrawable.class ? new CircleState(orig) : null;
+    }
+
     @Override
     public int getOpacity() {
         // We always have lots of transparent pixels.
@@ -50,4 +63,17 @@ public class CircleDrawable extends ClipPathDrawable {
         path.addOval(bounds.left, bounds.top, bounds.right, bounds.bottom, Path.Direction.CW);
     }
 
+    private static class CircleState extends ClipPathState {
+
+        CircleState(ClipPathState orig) {
+            super(orig);
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable(Resources res) {
+            return new CircleDrawable(this, res);
+        }
+    }
+
 }
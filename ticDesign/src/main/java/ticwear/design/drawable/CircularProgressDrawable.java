@@ -34,6 +34,7 @@ import android.graphics.drawable.Animatable;
 import android.graphics.drawable.Drawable;
 import android.os.SystemClock;
 import android.support.annotation.NonNull;
+import android.view.Choreographer;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
 
@@ -104,15 +105,20 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
     private int mOutAnimationDuration;
     private int mProgressMode;
     private Interpolator mTransformInterpolator;
-    // 更新动画的任务
-    private final Runnable mUpdater = new Runnable() {
+    // 更新动画的任务，与vsync对齐
+    private final Choreographer.FrameCallback mUpdater = new Choreographer.FrameCallback() {
 
         @Override
-        public void run() {
+        public void doFrame(long frameTimeNanos) {
+            mFrameScheduled = false;
+            mUpdating = true;
             update();
+            mUpdating = false;
         }
 
     };
+    private boolean mFrameScheduled;
+    private boolean mUpdating;
     private boolean mMutated = false;
     private PorterDuffColorFilter mTintFilter;
     // 存储当前drawable的信息
@@ -172,6 +178,9 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
                 mState.mBuilder.progressPercent(mProgressPercent);
                 mState.mBuilder.progressMode(mode);
             }
+            if (isRunning()) {
+                scheduleNextFrame();
+            }
             invalidateSelf();
         }
     }
@@ -197,6 +206,7 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
         }
         if (isRunning()) {
             resetAnimation();
+            scheduleNextFrame();
             invalidateSelf();
         }
         else if (mProgressPercent != 0f)
@@ -211,9 +221,10 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
         percent = Math.min(1f, Math.max(0f, percent));
         if (mSecondaryProgressPercent != percent) {
             mSecondaryProgressPercent = percent;
-            if (isRunning())
+            if (isRunning()) {
+                scheduleNextFrame();
                 invalidateSelf();
-            else if (mSecondaryProgressPercent != 0f)
+            } else if (mSecondaryProgressPercent != 0f)
                 start();
         }
     }
@@ -466,7 +477,7 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
             mProgressState = PROGRESS_STATE_HIDE;
         }
 
-        scheduleSelf(mUpdater, SystemClock.uptimeMillis() + FRAME_DURATION);
+        scheduleNextFrame();
         invalidateSelf();
     }
 
@@ -476,14 +487,13 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
 
         if (withAnimation) {
             mLastRunStateTime = SystemClock.uptimeMillis();
-            if (mRunState == RUN_STATE_STARTED) {
-                scheduleSelf(mUpdater, SystemClock.uptimeMillis() + FRAME_DURATION);
-                invalidateSelf();
-            }
+            // The update loop may be idle on a static determinate progress.
+            scheduleNextFrame();
+            invalidateSelf();
             mRunState = RUN_STATE_STOPPING;
         } else {
             mRunState = RUN_STATE_STOPPED;
-            unscheduleSelf(mUpdater);
+            cancelNextFrame();
             invalidateSelf();
         }
     }
@@ -493,11 +503,51 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
         return mRunState != RUN_STATE_STOPPED;
     }
 
-    @Override
-    public void scheduleSelf(Runnable what, long when) {
+    /**
+     * Request an {@link #update()} on the next vsync. Unlike a fixed-period self schedule,
+     * frames are only produced while the drawable is visible and has a callback. Once the
+     * callback is cleared, the loop stops on its next frame, and resumes on
+     * {@link #setVisible(boolean, boolean)} after a new callback is set.
+     */
+    private void scheduleNextFrame() {
         if (mRunState == RUN_STATE_STOPPED)
             mRunState = mInAnimationDuration > 0 ? RUN_STATE_STARTING : RUN_STATE_RUNNING;
-        super.scheduleSelf(what, when);
+        if (!mFrameScheduled && isVisible() && getCallback() != null) {
+            if (!mUpdating) {
+                // Resume from an idle loop, skip the idle time instead of jumping ahead.
+                mLastUpdateTime = SystemClock.uptimeMillis();
+            }
+            mFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mUpdater);
+        }
+    }
+
+    private void cancelNextFrame() {
+        if (mFrameScheduled) {
+            mFrameScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mUpdater);
+        }
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        boolean changed = super.setVisible(visible, restart);
+        if (!visible) {
+            cancelNextFrame();
+        } else if (isRunning()) {
+            scheduleNextFrame();
+        }
+        return changed;
+    }
+
+    /**
+     * A determinate progress only needs new frames while it is transforming, or when
+     * the rotating secondary arc is visible.
+     */
+    private boolean needsDeterminateFrames() {
+        return mRunState != RUN_STATE_RUNNING
+                || (mProgressPercent > 0f && mProgressPercent < 1f
+                && mSecondaryProgressPercent > mProgressPercent);
     }
 
     @Override
@@ -526,6 +576,10 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
     }
 
     private void update() {
+        if (getCallback() == null) {
+            // Detached or replaced, nobody draws us anymore.
+            return;
+        }
         switch (mProgressMode) {
             case MODE_DETERMINATE:
                 updateDeterminate();
@@ -556,8 +610,8 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
             }
         }
 
-        if (isRunning())
-            scheduleSelf(mUpdater, SystemClock.uptimeMillis() + FRAME_DURATION);
+        if (isRunning() && needsDeterminateFrames())
+            scheduleNextFrame();
 
         invalidateSelf();
     }
@@ -650,7 +704,7 @@ public class CircularProgressDrawable extends Drawable implements Animatable {
         }
 
         if (isRunning())
-            scheduleSelf(mUpdater, SystemClock.uptimeMillis() + FRAME_DURATION);
+            scheduleNextFrame();
 
         invalidateSelf();
     }
@@ -17,6 +17,7 @@
 package ticwear.design.drawable;
 
 import android.content.res.ColorStateList;
+import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.ColorFilter;
@@ -30,10 +31,15 @@ import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.ColorInt;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 /**
  * An drawable to clip given drawable to a shape.
  * <p/>
+ * Tint and shape are shared by drawables created from the same {@link ConstantState}.
+ * Each drawable computes its own clip path in bounds-local coordinates, and only again
+ * when the size of its bounds changes.
+ * <p/>
  * Created by tankery on 6/15/16.
  */
 abstract public class ClipPathDrawable extends Drawable {
@@ -41,12 +47,20 @@ abstract public class ClipPathDrawable extends Drawable {
     static final PorterDuff.Mode DEFAULT_TINT_MODE = PorterDuff.Mode.SRC_IN;
 
     private final Paint mPathPaint = new Paint();
-    private final Drawable mSource;
     private final Path mClipPath = new Path();
+    private final Drawable mSource;
+
+    private final Path mPath = new Path();
+    private final Rect mPathBounds = new Rect();
+    private boolean mPathValid;
+
+    private ClipPathState mState;
+    private boolean mMutated;
 
-    private ColorStateList mTint = null;
-    private Mode mTintMode = DEFAULT_TINT_MODE;
+    private ColorFilter mColorFilter;
     private PorterDuffColorFilter mTintFilter;
+    private int mTintFilterColor;
+    private Mode mTintFilterMode;
 
     public ClipPathDrawable(int color) {
         this(new ColorDrawable(color));
@@ -55,43 +69,107 @@ abstract public class ClipPathDrawable extends Drawable {
     public ClipPathDrawable(@NonNull Drawable drawable) {
         super();
         mSource = drawable;
+        mState = new UnsharedState(null);
         mPathPaint.setAntiAlias(true);
     }
 
+    /**
+     * Create a drawable of the same shape from a shared state.
+     *
+     * @see #onCreateConstantState(ClipPathState)
+     */
+    protected ClipPathDrawable(@NonNull ClipPathState state, @Nullable Resources res) {
+        super();
+        mSource = res == null ? state.mSourceState.newDrawable() : state.mSourceState.newDrawable(res);
+        mState = state;
+        mPathPaint.setAntiAlias(true);
+        if (state.mTint != null) {
+            mSource.setTintList(state.mTint);
+        }
+        mSource.setTintMode(state.mTintMode);
+        updateTintFilter();
+    }
+
+    /**
+     * Shapes that can be shared between drawables should return a state here, whose
+     * {@link ConstantState#newDrawable(Resources)} creates the same shape through
+     * {@link #ClipPathDrawable(ClipPathState, Resources)}. The state must copy
+     * {@code orig} with {@link ClipPathState#ClipPathState(ClipPathState)}.
+     * <p/>
+     * Returns null by default, so the drawable has no constant state.
+     */
+    @Nullable
+    protected ClipPathState onCreateConstantState(@NonNull ClipPathState orig) {
+        return null;
+    }
+
+    @Override
+    public ConstantState getConstantState() {
+        if (mState instanceof UnsharedState) {
+            // Not shared yet, upgrade to a shape specific state if we can.
+            if (mSource.getConstantState() == null) {
+                return null;
+            }
+            ClipPathState state = onCreateConstantState(mState);
+            if (state == null) {
+                return null;
+            }
+            mState = state;
+        }
+        mState.mSourceState = mSource.getConstantState();
+        mState.mChangingConfigurations = getChangingConfigurations();
+        return mSource.getConstantState() == null ? null : mState;
+    }
+
+    @Override
+    public int getChangingConfigurations() {
+        return super.getChangingConfigurations()
+                | mState.mChangingConfigurations
+                | mSource.getChangingConfigurations();
+    }
+
+    @Override
+    public Drawable mutate() {
+        if (!mMutated && super.mutate() == this) {
+            mSource.mutate();
+            ClipPathState state = onCreateConstantState(mState);
+            mState = state != null ? state : new UnsharedState(mState);
+            mMutated = true;
+        }
+        return this;
+    }
+
     @Override
     public void setColorFilter(ColorFilter colorFilter) {
         mSource.setColorFilter(colorFilter);
-        mPathPaint.setColorFilter(colorFilter);
+        mColorFilter = colorFilter;
+        updatePathPaintFilter();
     }
 
     @Override
     public void setTintList(ColorStateList tint) {
         mSource.setTintList(tint);
-        mTint = tint;
-        mTintFilter = createTintFilter(tint, mTintMode);
+        mState.mTint = tint;
+        updateTintFilter();
         invalidateSelf();
     }
 
     @Override
     public void setTintMode(@NonNull Mode tintMode) {
         mSource.setTintMode(tintMode);
-        mTintMode = tintMode;
-        mTintFilter = createTintFilter(mTint, tintMode);
+        mState.mTintMode = tintMode;
+        updateTintFilter();
         invalidateSelf();
     }
 
     @Override
     protected boolean onStateChange(int[] stateSet) {
-        if (mTint != null && mTintMode != null) {
-            mTintFilter = createTintFilter(mTint, mTintMode);
-            return true;
-        }
-        return false;
+        return updateTintFilter();
     }
 
     @Override
     public boolean isStateful() {
-        return mTint != null && mTint.isStateful();
+        return mState.mTint != null && mState.mTint.isStateful();
     }
 
     @Override
@@ -100,57 +178,72 @@ abstract public class ClipPathDrawable extends Drawable {
         mSource.setBounds(left, top, right, bottom);
     }
 
+    /**
+     * Get the clip path, in the same coordinates as bounds.
+     */
     public Path getClipPath() {
+        // The path is bounds-local, offset a copy to bounds.
+        final Rect bounds = getBounds();
+        getPath(bounds).offset(bounds.left, bounds.top, mClipPath);
         return mClipPath;
     }
 
+    private Path getPath(Rect bounds) {
+        if (!mPathValid || mPathBounds.width() != bounds.width()
+                || mPathBounds.height() != bounds.height()) {
+            mPathBounds.set(0, 0, bounds.width(), bounds.height());
+            onResetPath(mPath, mPathBounds);
+            mPathValid = true;
+        }
+        return mPath;
+    }
+
     public Paint getPathPaint() {
         return mPathPaint;
     }
 
-    @Override
-    protected void onBoundsChange(Rect bounds) {
-        super.onBoundsChange(bounds);
-        onResetPath(mClipPath, bounds);
+    /**
+     * Notify the shape has changed, and the clip path should be computed again.
+     */
+    protected void invalidatePath() {
+        mPathValid = false;
+        invalidateSelf();
     }
 
     abstract protected void onResetPath(Path path, Rect bounds);
 
     @Override
     public void draw(Canvas canvas) {
-        canvas.save();
+        final Rect bounds = getBounds();
+        final Path path = getPath(bounds);
+        final int saveCount = canvas.save();
 
         if (mSource instanceof ColorDrawable) {
             int color = ((ColorDrawable) mSource).getColor();
-            drawWithColor(canvas, color);
+            canvas.translate(bounds.left, bounds.top);
+            drawWithColor(canvas, path, color);
         } else {
-            drawWithClip(canvas, mSource);
+            drawWithClip(canvas, path, mSource);
         }
 
-        canvas.restore();
+        canvas.restoreToCount(saveCount);
     }
 
-    private void drawWithColor(Canvas canvas, @ColorInt int color) {
-
-        final ColorFilter colorFilter = mPathPaint.getColorFilter();
-        if ((color >>> 24) != 0 || colorFilter != null || mTintFilter != null) {
-
-            // do not using filter
-            if (colorFilter == null) {
-                mPathPaint.setColorFilter(mTintFilter);
+    private void drawWithColor(Canvas canvas, Path path, @ColorInt int color) {
+        if ((color >>> 24) != 0 || mPathPaint.getColorFilter() != null) {
+            if (mPathPaint.getColor() != color) {
+                mPathPaint.setColor(color);
             }
-
-            mPathPaint.setColor(color);
-            canvas.drawPath(mClipPath, mPathPaint);
-
-            // Restore original color filter.
-            mPathPaint.setColorFilter(colorFilter);
+            canvas.drawPath(path, mPathPaint);
         }
     }
 
-    private void drawWithClip(Canvas canvas, Drawable drawable) {
-        canvas.clipRect(getBounds());
-        canvas.clipPath(mClipPath);
+    private void drawWithClip(Canvas canvas, Path path, Drawable drawable) {
+        final Rect bounds = getBounds();
+        canvas.clipRect(bounds);
+        canvas.translate(bounds.left, bounds.top);
+        canvas.clipPath(path);
+        canvas.translate(-bounds.left, -bounds.top);
 
         drawable.draw(canvas);
     }
@@ -162,15 +255,93 @@ abstract public class ClipPathDrawable extends Drawable {
 
     /**
      * Ensures the tint filter is consistent with the current tint color and
-     * mode.
+     * mode. A new filter is only created when the resolved color or mode changes.
+     *
+     * @return true if the tint filter has changed.
      */
-    PorterDuffColorFilter createTintFilter(ColorStateList tint, Mode tintMode) {
+    private boolean updateTintFilter() {
+        final ColorStateList tint = mState.mTint;
+        final Mode tintMode = mState.mTintMode;
         if (tint == null || tintMode == null) {
-            return null;
+            if (mTintFilter == null) {
+                return false;
+            }
+            mTintFilter = null;
+        } else {
+            final int color = tint.getColorForState(getState(), Color.TRANSPARENT);
+            if (mTintFilter != null && mTintFilterColor == color && mTintFilterMode == tintMode) {
+                return false;
+            }
+            mTintFilter = new PorterDuffColorFilter(color, tintMode);
+            mTintFilterColor = color;
+            mTintFilterMode = tintMode;
         }
+        updatePathPaintFilter();
+        return true;
+    }
+
+    /**
+     * Explicit color filter takes precedence over the tint filter.
+     */
+    private void updatePathPaintFilter() {
+        mPathPaint.setColorFilter(mColorFilter != null ? mColorFilter : mTintFilter);
+    }
 
-        final int color = tint.getColorForState(getState(), Color.TRANSPARENT);
-        return new PorterDuffColorFilter(color, tintMode);
+    /**
+     * State shared by drawables of the same shape. Shapes implement
+     * {@link #newDrawable(Resources)} to create the matching drawable.
+     */
+    protected abstract static class ClipPathState extends ConstantState {
+        ConstantState mSourceState;
+        ColorStateList mTint = null;
+        Mode mTintMode = DEFAULT_TINT_MODE;
+        int mChangingConfigurations;
+
+        protected ClipPathState(@Nullable ClipPathState orig) {
+            if (orig != null) {
+                mSourceState = orig.mSourceState;
+                mTint = orig.mTint;
+                mTintMode = orig.mTintMode;
+                mChangingConfigurations = orig.mChangingConfigurations;
+            }
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return newDrawable(null);
+        }
+
+        /**
+         * Create the drawable of this shape, through
+         * {@link ClipPathDrawable#ClipPathDrawable(ClipPathState, Resources)}.
+         */
+        @NonNull
+        @Override
+        public abstract Drawable newDrawable(@Nullable Resources res);
+
+        @Override
+        public int getChangingConfigurations() {
+            return mChangingConfigurations;
+        }
+    }
+
+    /**
+     * State of a drawable whose shape has no shared state. It holds the tint of its own
+     * drawable, and is never returned by {@link #getConstantState()}.
+     */
+    private static final class UnsharedState extends ClipPathState {
+
+        UnsharedState(@Nullable ClipPathState orig) {
+            super(orig);
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable(@Nullable Resources res) {
+            // Not reachable, getConstantState() upgrades or hides this state.
+            throw new IllegalStateException("Unshared clip path state.");
+        }
     }
 
 }
@@ -21,11 +21,11 @@ import org.xmlpull.v1.XmlSerializer;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
@@ -49,10 +49,30 @@ public class FastXmlSerializer implements XmlSerializer {
         null,     null,     null,     null,     "&lt;",   null,     "&gt;",   null,  // 56-63
     };
 
+    private static final byte[][] ESCAPE_BYTES = new byte[ESCAPE_TABLE.length][];
+
+    static {
+        for (int i = 0; i < ESCAPE_TABLE.length; i++) {
+            final String escape = ESCAPE_TABLE[i];
+            if (escape != null) {
+                final byte[] bytes = new byte[escape.length()];
+                for (int j = 0; j < bytes.length; j++) {
+                    bytes[j] = (byte) escape.charAt(j);
+                }
+                ESCAPE_BYTES[i] = bytes;
+            }
+        }
+    }
+
     private static final int BUFFER_LEN = 8192;
 
+    // Max bytes written for one char: "&quot;", or a 4-byte UTF-8 sequence.
+    private static final int MAX_CHAR_BYTES = 6;
+
     private static String sSpace = "                                                              ";
 
+    private static final ThreadLocal<FastXmlSerializer> sPool = new ThreadLocal<>();
+
     private final char[] mText = new char[BUFFER_LEN];
     private int mPos;
 
@@ -62,13 +82,62 @@ public class FastXmlSerializer implements XmlSerializer {
     private CharsetEncoder mCharset;
     private ByteBuffer mBytes = ByteBuffer.allocate(BUFFER_LEN);
 
+    // UTF-8 output is encoded straight from input into mUtf8Bytes, skipping mText.
+    private boolean mUtf8;
+    private final byte[] mUtf8Bytes = new byte[BUFFER_LEN];
+    private int mBytePos;
+    private FileChannel mChannel;
+    private ByteBuffer mDirectBytes;
+
     private boolean mIndent = false;
     private boolean mInTag;
 
     private int mNesting = 0;
     private boolean mLineStart = true;
 
+    /**
+     * Obtain a serializer of current thread. Call {@link #recycle()} when done with it.
+     */
+    public static FastXmlSerializer obtain() {
+        final FastXmlSerializer serializer = sPool.get();
+        if (serializer != null) {
+            sPool.set(null);
+            return serializer;
+        }
+        return new FastXmlSerializer();
+    }
+
+    /**
+     * Reset and return this serializer to the pool of current thread. It should
+     * not be used after this call.
+     */
+    public void recycle() {
+        mPos = 0;
+        mBytePos = 0;
+        mBytes.clear();
+        mWriter = null;
+        mOutputStream = null;
+        mChannel = null;
+        mUtf8 = false;
+        mIndent = false;
+        mInTag = false;
+        mNesting = 0;
+        mLineStart = true;
+        sPool.set(this);
+    }
+
     private void append(char c) throws IOException {
+        if (mUtf8) {
+            if (mBytePos > BUFFER_LEN - MAX_CHAR_BYTES) {
+                flushUtf8Bytes();
+            }
+            if (c < 0x80) {
+                mUtf8Bytes[mBytePos++] = (byte) c;
+            } else {
+                mBytePos = putUtf8(mUtf8Bytes, mBytePos, checkNotSurrogate(c));
+            }
+            return;
+        }
         int pos = mPos;
         if (pos >= (BUFFER_LEN-1)) {
             flush();
@@ -79,6 +148,10 @@ public class FastXmlSerializer implements XmlSerializer {
     }
 
     private void append(String str, int i, final int length) throws IOException {
+        if (mUtf8) {
+            appendUtf8(str, i, i + length, false);
+            return;
+        }
         if (length > BUFFER_LEN) {
             final int end = i + length;
             while (i < end) {
@@ -98,6 +171,10 @@ public class FastXmlSerializer implements XmlSerializer {
     }
 
     private void append(char[] buf, int i, final int length) throws IOException {
+        if (mUtf8) {
+            appendUtf8(buf, i, i + length, false);
+            return;
+        }
         if (length > BUFFER_LEN) {
             final int end = i + length;
             while (i < end) {
@@ -128,7 +205,93 @@ public class FastXmlSerializer implements XmlSerializer {
         append(sSpace, 0, indent);
     }
 
+    private void appendUtf8(String str, int i, final int end, boolean escape)
+            throws IOException {
+        final byte[] bytes = mUtf8Bytes;
+        final byte[][] escapes = ESCAPE_BYTES;
+        int pos = mBytePos;
+        while (i < end) {
+            if (pos > BUFFER_LEN - MAX_CHAR_BYTES) {
+                mBytePos = pos;
+                flushUtf8Bytes();
+                pos = 0;
+            }
+            final char c = str.charAt(i++);
+            if (c < 0x80) {
+                final byte[] escaped = escape && c < escapes.length ? escapes[c] : null;
+                if (escaped == null) {
+                    bytes[pos++] = (byte) c;
+                } else {
+                    System.arraycopy(escaped, 0, bytes, pos, escaped.length);
+                    pos += escaped.length;
+                }
+            } else if (Character.isHighSurrogate(c) && i < end &&
+                    Character.isLowSurrogate(str.charAt(i))) {
+                pos = putUtf8(bytes, pos, Character.toCodePoint(c, str.charAt(i++)));
+            } else {
+                pos = putUtf8(bytes, pos, checkNotSurrogate(c));
+            }
+        }
+        mBytePos = pos;
+    }
+
+    private void appendUtf8(char[] buf, int i, final int end, boolean escape)
+            throws IOException {
+        final byte[] bytes = mUtf8Bytes;
+        final byte[][] escapes = ESCAPE_BYTES;
+        int pos = mBytePos;
+        while (i < end) {
+            if (pos > BUFFER_LEN - MAX_CHAR_BYTES) {
+                mBytePos = pos;
+                flushUtf8Bytes();
+                pos = 0;
+            }
+            final char c = buf[i++];
+            if (c < 0x80) {
+                final byte[] escaped = escape && c < escapes.length ? escapes[c] : null;
+                if (escaped == null) {
+                    bytes[pos++] = (byte) c;
+                } else {
+                    System.arraycopy(escaped, 0, bytes, pos, escaped.length);
+                    pos += escaped.length;
+                }
+            } else if (Character.isHighSurrogate(c) && i < end &&
+                    Character.isLowSurrogate(buf[i])) {
+                pos = putUtf8(bytes, pos, Character.toCodePoint(c, buf[i++]));
+            } else {
+                pos = putUtf8(bytes, pos, checkNotSurrogate(c));
+            }
+        }
+        mBytePos = pos;
+    }
+
+    private static int checkNotSurrogate(char c) throws IOException {
+        if (Character.isSurrogate(c)) {
+            throw new IOException("Malformed surrogate char 0x" + Integer.toHexString(c));
+        }
+        return c;
+    }
+
+    private static int putUtf8(byte[] bytes, int pos, int codePoint) {
+        if (codePoint < 0x800) {
+            bytes[pos++] = (byte) (0xc0 | (codePoint >> 6));
+        } else if (codePoint < 0x10000) {
+            bytes[pos++] = (byte) (0xe0 | (codePoint >> 12));
+            bytes[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        } else {
+            bytes[pos++] = (byte) (0xf0 | (codePoint >> 18));
+            bytes[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+            bytes[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        }
+        bytes[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+        return pos;
+    }
+
     private void escapeAndAppendString(final String string) throws IOException {
+        if (mUtf8) {
+            appendUtf8(string, 0, string.length(), true);
+            return;
+        }
         final int N = string.length();
         final char NE = (char)ESCAPE_TABLE.length;
         final String[] escapes = ESCAPE_TABLE;
@@ -147,6 +310,10 @@ public class FastXmlSerializer implements XmlSerializer {
     }
 
     private void escapeAndAppendString(char[] buf, int start, int len) throws IOException {
+        if (mUtf8) {
+            appendUtf8(buf, start, start + len, true);
+            return;
+        }
         final char NE = (char)ESCAPE_TABLE.length;
         final String[] escapes = ESCAPE_TABLE;
         int end = start+len;
@@ -235,8 +402,37 @@ public class FastXmlSerializer implements XmlSerializer {
         }
     }
 
+    private void flushUtf8Bytes() throws IOException {
+        final int length = mBytePos;
+        if (length == 0) {
+            return;
+        }
+        if (mChannel != null) {
+            if (mDirectBytes == null) {
+                mDirectBytes = ByteBuffer.allocateDirect(BUFFER_LEN);
+            }
+            final ByteBuffer direct = mDirectBytes;
+            direct.clear();
+            direct.put(mUtf8Bytes, 0, length);
+            direct.flip();
+            while (direct.hasRemaining()) {
+                mChannel.write(direct);
+            }
+        } else {
+            mOutputStream.write(mUtf8Bytes, 0, length);
+        }
+        mBytePos = 0;
+    }
+
     public void flush() throws IOException {
         //Log.i("PackageManager", "flush mPos=" + mPos);
+        if (mUtf8) {
+            flushUtf8Bytes();
+            if (mOutputStream != null) {
+                mOutputStream.flush();
+            }
+            return;
+        }
         if (mPos > 0) {
             if (mOutputStream != null) {
                 CharBuffer charBuffer = CharBuffer.wrap(mText, 0, mPos);
@@ -309,9 +505,21 @@ public class FastXmlSerializer implements XmlSerializer {
             IllegalArgumentException, IllegalStateException {
         if (os == null)
             throw new IllegalArgumentException();
-        if (true) {
+        mChannel = null;
+        mWriter = null;
+        if (encoding == null || isUtf8(encoding)) {
+            // Specialised UTF-8 writer, no CharsetEncoder needed.
+            mUtf8 = true;
+            mOutputStream = os;
+        } else {
+            mUtf8 = false;
             try {
-                mCharset = Charset.forName(encoding).newEncoder();
+                final Charset charset = Charset.forName(encoding);
+                if (mCharset != null && mCharset.charset().equals(charset)) {
+                    mCharset.reset();
+                } else {
+                    mCharset = charset.newEncoder();
+                }
             } catch (IllegalCharsetNameException e) {
                 throw (UnsupportedEncodingException) (new UnsupportedEncodingException(
                         encoding).initCause(e));
@@ -320,19 +528,34 @@ public class FastXmlSerializer implements XmlSerializer {
                         encoding).initCause(e));
             }
             mOutputStream = os;
-        } else {
-            setOutput(
-                encoding == null
-                    ? new OutputStreamWriter(os)
-                    : new OutputStreamWriter(os, encoding));
         }
     }
 
     public void setOutput(Writer writer) throws IOException, IllegalArgumentException,
             IllegalStateException {
+        mUtf8 = false;
+        mOutputStream = null;
+        mChannel = null;
         mWriter = writer;
     }
 
+    /**
+     * Write UTF-8 encoded document to a channel, through a reused direct buffer.
+     * The channel is not forced or closed by this serializer.
+     */
+    public void setOutput(FileChannel channel) throws IllegalArgumentException {
+        if (channel == null)
+            throw new IllegalArgumentException();
+        mUtf8 = true;
+        mOutputStream = null;
+        mWriter = null;
+        mChannel = channel;
+    }
+
+    private static boolean isUtf8(String encoding) {
+        return "utf-8".equalsIgnoreCase(encoding) || "utf8".equalsIgnoreCase(encoding);
+    }
+
     public void setPrefix(String prefix, String namespace) throws IOException,
             IllegalArgumentException, IllegalStateException {
         throw new UnsupportedOperationException();
@@ -181,12 +181,16 @@ public class XmlUtils {
      */
     public static final void writeMapXml(Map val, OutputStream out)
             throws XmlPullParserException, java.io.IOException {
-        XmlSerializer serializer = new FastXmlSerializer();
-        serializer.setOutput(out, "utf-8");
-        serializer.startDocument(null, true);
-        serializer.setFeature("http://xmlpull.org/v1/doc/features.html#indent-output", true);
-        writeMapXml(val, null, serializer);
-        serializer.endDocument();
+        FastXmlSerializer serializer = FastXmlSerializer.obtain();
+        try {
+            serializer.setOutput(out, "utf-8");
+            serializer.startDocument(null, true);
+            serializer.setFeature("http://xmlpull.org/v1/doc/features.html#indent-output", true);
+            writeMapXml(val, null, serializer);
+            serializer.endDocument();
+        } finally {
+            serializer.recycle();
+        }
     }
 
     /**
@@ -26,11 +26,13 @@ import android.database.Cursor;
 import android.graphics.Color;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.StateListDrawable;
+import android.os.AsyncTask;
 import android.os.Handler;
 import android.os.Message;
 import android.support.annotation.IdRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.annotation.StyleRes;
 import android.support.v7.widget.RecyclerView;
 import android.text.TextUtils;
 import android.util.TypedValue;
@@ -55,6 +57,8 @@ import android.widget.Space;
 import android.widget.TextView;
 
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.BitSet;
 
 import ticwear.design.R;
 import ticwear.design.app.AlertDialog;
@@ -130,6 +134,10 @@ public class AlertController {
 
     private int mButtonPanelLayoutHint = AlertDialog.LAYOUT_HINT_NONE;
 
+    /** Dialog theme to find a prepared shell by, 0 to always inflate. */
+    private Context mShellParent;
+    private int mShellThemeResId;
+
     private Handler mHandler;
 
     private final View.OnClickListener mButtonHandler = new View.OnClickListener() {
@@ -241,10 +249,24 @@ public class AlertController {
 
     public void installContent() {
         int contentView = selectContentView();
-        mWindow.setContentView(contentView);
+        View shell = AlertDialogShells.obtain(mShellParent, mShellThemeResId, contentView);
+        if (shell != null) {
+            mWindow.setContentView(shell, shell.getLayoutParams());
+        } else {
+            mWindow.setContentView(contentView);
+        }
         setupView();
     }
 
+    /**
+     * Set the parent context and theme the dialog is built with, so {@link #installContent()}
+     * can use a shell prepared by {@link AlertDialogShells} for them.
+     */
+    public void setShellSource(Context parent, @StyleRes int themeResId) {
+        mShellParent = parent;
+        mShellThemeResId = themeResId;
+    }
+
     private int selectContentView() {
         if (mButtonPanelSideLayout == 0) {
             return mAlertDialogLayout;
@@ -1084,23 +1106,41 @@ public class AlertController {
             /* Don't directly set the adapter on the ListView as we might
              * want to add a footer to the ListView later.
              */
+            final boolean useCursorCheckedColumn = mIsMultiChoice
+                    && adapter instanceof CursorRecyclerViewAdapter && mIsCheckedColumn != null;
             dialog.mAdapter = new TrackSelectionAdapterWrapper<RecyclerView.ViewHolder>(adapter) {
-                private final int mIsCheckedIndex;
 
                 {
-                    if (useCursorCheckedColumn()) {
-                        final Cursor cursor = ((CursorRecyclerViewAdapter) getAdapter()).getCursor();
-                        mIsCheckedIndex = cursor.getColumnIndexOrThrow(mIsCheckedColumn);
-                    } else {
-                        mIsCheckedIndex = -1;
+                    if (useCursorCheckedColumn) {
+                        readCheckedColumn((CursorRecyclerViewAdapter) getAdapter());
                     }
                 }
+
+                /**
+                 * The cursor is not thread safe, so it's held with no items reported until
+                 * the checked column pass is done, then checked states are applied and all
+                 * items are shown.
+                 */
+                private void readCheckedColumn(final CursorRecyclerViewAdapter cursorAdapter) {
+                    final Cursor cursor = cursorAdapter.getCursor();
+                    cursorAdapter.holdCursor();
+                    new CheckedColumnTask(cursor, cursor.getColumnIndexOrThrow(mIsCheckedColumn)) {
+                        @Override
+                        protected void onPostExecute(Void result) {
+                            // Positions are of the held cursor, useless if it's changed.
+                            final boolean sameCursor = cursorAdapter.getCursor() == cursor;
+                            cursorAdapter.releaseCursor();
+                            if (sameCursor) {
+                                setItemsChecked(mCheckedPositions, mCheckedIds);
+                            }
+                            notifyDataSetChanged();
+                        }
+                    }.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+                }
+
                 @Override
                 public void onBindViewHolder(RecyclerView.ViewHolder viewHolder, int position) {
-                    if (useCursorCheckedColumn() && mIsCheckedIndex != -1) {
-                        final Cursor cursor = ((CursorRecyclerViewAdapter) getAdapter()).getCursor();
-                        setItemChecked(cursor.getPosition(), cursor.getInt(mIsCheckedIndex) == 1);
-                    } else if (mCheckedItems != null) {
+                    if (mCheckedItems != null) {
                         boolean isItemChecked = mCheckedItems[position];
                         if (isItemChecked != isItemChecked(position)) {
                             setItemChecked(position, isItemChecked);
@@ -1113,10 +1153,6 @@ public class AlertController {
                     // Update checked state then bind, so we can update the view state in this bind.
                     super.onBindViewHolder(viewHolder, position);
                 }
-
-                private boolean useCursorCheckedColumn() {
-                    return mIsMultiChoice && getAdapter() instanceof CursorRecyclerViewAdapter;
-                }
             };
 
             if (mOnClickListener != null) {
@@ -1157,6 +1193,53 @@ public class AlertController {
         }
     }
 
+    /**
+     * Reads the checked column and the ids of checked rows of a multi-choice cursor in
+     * one background pass, so the checked states are complete before any row is bound.
+     */
+    private static class CheckedColumnTask extends AsyncTask<Void, Void, Void> {
+
+        private final Cursor mCursor;
+        private final int mIsCheckedIndex;
+
+        final BitSet mCheckedPositions = new BitSet();
+        long[] mCheckedIds;
+
+        CheckedColumnTask(Cursor cursor, int isCheckedIndex) {
+            mCursor = cursor;
+            mIsCheckedIndex = isCheckedIndex;
+        }
+
+        @Override
+        protected Void doInBackground(Void... params) {
+            final Cursor cursor = mCursor;
+            final int idIndex = cursor.getColumnIndex("_id");
+            final int restorePosition = cursor.getPosition();
+            long[] ids = idIndex != -1 ? new long[16] : null;
+            int checkedCount = 0;
+
+            if (cursor.moveToFirst()) {
+                do {
+                    if (cursor.getInt(mIsCheckedIndex) != 1) {
+                        continue;
+                    }
+                    mCheckedPositions.set(cursor.getPosition());
+                    if (ids != null) {
+                        if (checkedCount == ids.length) {
+                            ids = Arrays.copyOf(ids, checkedCount * 2);
+                        }
+                        ids[checkedCount] = cursor.getLong(idIndex);
+                    }
+                    checkedCount++;
+                } while (cursor.moveToNext());
+            }
+            cursor.moveToPosition(restorePosition);
+
+            mCheckedIds = ids != null ? Arrays.copyOf(ids, checkedCount) : null;
+            return null;
+        }
+    }
+
     public static class DelayConfirmRequest {
         public final int witchButton;
         public final long delayDuration;
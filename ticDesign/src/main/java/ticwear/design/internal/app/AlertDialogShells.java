@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2016 Mobvoi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ticwear.design.internal.app;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Bundle;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StyleRes;
+import android.support.v4.view.AsyncLayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import java.util.ArrayList;
+
+import ticwear.design.R;
+
+/**
+ * Process level cache of pre-inflated alert dialog shells, keyed by the parent context
+ * and theme a dialog is built with.
+ * <p/>
+ * A shell is the content layout an {@link AlertController} installs into its window.
+ * It is inflated on a background inflater, with a context themed exactly as the dialog
+ * context will be, so it resolves the same attributes as a normally inflated dialog.
+ * {@link AlertController#installContent()} takes a ready shell of its parent context and
+ * theme, instead of inflating the layout on the UI thread.
+ * <p/>
+ * Shells of an activity are dropped when the activity is destroyed.
+ * Only accessed on the UI thread.
+ */
+public final class AlertDialogShells {
+
+    /** Max number of shells ready or pending at the same time. */
+    private static final int MAX_SHELLS = 3;
+
+    @LayoutRes
+    static final int DEFAULT_SHELL_LAYOUT = R.layout.alert_dialog_ticwear;
+
+    private static final ArrayList<Shell> sShells = new ArrayList<>(MAX_SHELLS);
+
+    private static boolean sLifecycleRegistered;
+
+    private AlertDialogShells() {}
+
+    /**
+     * Inflate a shell in background, if there is none ready or pending for the parent
+     * context and theme.
+     *
+     * @param parent The parent context dialogs are built with, used as key.
+     * @param themeResId The theme dialogs are built with, used as key.
+     * @param dialogContext The context the dialog will be themed with, which wraps parent.
+     * @param keepWarm Inflate another shell each time the ready one is taken.
+     */
+    public static void prepare(@NonNull Context parent, @StyleRes int themeResId,
+                               @NonNull Context dialogContext, boolean keepWarm) {
+        Shell shell = find(parent, themeResId);
+        if (shell != null) {
+            shell.keepWarm |= keepWarm;
+            return;
+        }
+        if (sShells.size() >= MAX_SHELLS) {
+            return;
+        }
+
+        registerLifecycle(parent);
+        shell = new Shell(parent, themeResId, dialogContext, keepWarm);
+        sShells.add(shell);
+        inflate(shell);
+    }
+
+    /**
+     * Take the ready shell of the parent context and theme, if its layout matches.
+     *
+     * @return The shell with layout params for the window, or null if not ready.
+     */
+    @Nullable
+    static View obtain(@Nullable Context parent, @StyleRes int themeResId,
+                       @LayoutRes int layoutResId) {
+        if (parent == null || layoutResId != DEFAULT_SHELL_LAYOUT) {
+            return null;
+        }
+        final Shell shell = find(parent, themeResId);
+        if (shell == null || shell.view == null) {
+            return null;
+        }
+        final View view = shell.view;
+        shell.view = null;
+        if (shell.keepWarm) {
+            inflate(shell);
+        } else {
+            sShells.remove(shell);
+        }
+        return view;
+    }
+
+    /**
+     * Drop all ready shells and stop keeping any of them warm, such as on low memory.
+     */
+    public static void clear() {
+        sShells.clear();
+    }
+
+    @Nullable
+    private static Shell find(Context parent, int themeResId) {
+        for (int i = 0, size = sShells.size(); i < size; i++) {
+            final Shell shell = sShells.get(i);
+            if (shell.parent == parent && shell.themeResId == themeResId) {
+                return shell;
+            }
+        }
+        return null;
+    }
+
+    private static void inflate(Shell shell) {
+        // Generate the layout params the window content parent would.
+        final ViewGroup root = new FrameLayout(shell.dialogContext);
+        new AsyncLayoutInflater(shell.dialogContext).inflate(DEFAULT_SHELL_LAYOUT, root, shell);
+    }
+
+    private static void registerLifecycle(Context parent) {
+        if (sLifecycleRegistered) {
+            return;
+        }
+        final Context appContext = parent.getApplicationContext();
+        if (appContext instanceof Application) {
+            ((Application) appContext).registerActivityLifecycleCallbacks(new ActivityWatcher());
+            sLifecycleRegistered = true;
+        }
+    }
+
+    private static class Shell implements AsyncLayoutInflater.OnInflateFinishedListener {
+
+        final Context parent;
+        final int themeResId;
+        final Context dialogContext;
+        boolean keepWarm;
+        @Nullable
+        View view;
+
+        Shell(Context parent, int themeResId, Context dialogContext, boolean keepWarm) {
+            this.parent = parent;
+            this.themeResId = themeResId;
+            this.dialogContext = dialogContext;
+            this.keepWarm = keepWarm;
+        }
+
+        @Override
+        public void onInflateFinished(@NonNull View view, int resid, @Nullable ViewGroup parent) {
+            // Dropped by clear() or activity destroy while inflating.
+            if (sShells.contains(this)) {
+                this.view = view;
+            }
+        }
+    }
+
+    private static class ActivityWatcher implements Application.ActivityLifecycleCallbacks {
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            for (int i = sShells.size() - 1; i >= 0; i--) {
+                if (wraps(sShells.get(i).parent, activity)) {
+                    sShells.remove(i);
+                }
+            }
+        }
+
+        private static boolean wraps(Context context, Activity activity) {
+            while (context != null) {
+                if (context == activity) {
+                    return true;
+                }
+                if (!(context instanceof ContextWrapper)) {
+                    return false;
+                }
+                context = ((ContextWrapper) context).getBaseContext();
+            }
+            return false;
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+        @Override
+        public void onActivityStarted(Activity activity) {}
+
+        @Override
+        public void onActivityResumed(Activity activity) {}
+
+        @Override
+        public void onActivityPaused(Activity activity) {}
+
+        @Override
+        public void onActivityStopped(Activity activity) {}
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+    }
+}
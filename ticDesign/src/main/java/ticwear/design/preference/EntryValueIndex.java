@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2016 Mobvoi Inc.
+ * Copyright (C) 2007 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ticwear.design.preference;
+
+import java.util.HashMap;
+
+/**
+ * Lookup from entry value to its index in the entry values array of a list preference.
+ * <p>
+ * Built once per entry values array, so finding the index of a value does not scan
+ * (and convert) every entry value.
+ */
+class EntryValueIndex {
+
+    private final String[] mValues;
+    private final HashMap<String, Integer> mIndices;
+
+    EntryValueIndex(CharSequence[] entryValues) {
+        final int count = entryValues.length;
+        mValues = new String[count];
+        mIndices = new HashMap<>(count * 4 / 3 + 1);
+        // Later entries overwrite earlier ones, the last index of a duplicated value wins.
+        for (int i = 0; i < count; i++) {
+            final String value = entryValues[i].toString();
+            mValues[i] = value;
+            mIndices.put(value, i);
+        }
+    }
+
+    /**
+     * @return The index of the value, or -1 if not found.
+     */
+    int indexOf(String value) {
+        if (value == null) {
+            return -1;
+        }
+        final Integer index = mIndices.get(value);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return The entry value at given index, as string.
+     */
+    String valueAt(int index) {
+        return mValues[index];
+    }
+
+    int size() {
+        return mValues.length;
+    }
+}
@@ -47,6 +47,14 @@ public class ListPreference extends DialogPreference {
     private int mClickedDialogEntryIndex;
     private boolean mValueSet;
 
+    /** Index of entry values, built on first lookup. */
+    private EntryValueIndex mEntryValueIndex;
+    /** Cached index of {@link #mValue}, valid if {@link #mValueIndexValid}. */
+    private int mValueIndex;
+    private boolean mValueIndexValid;
+    /** Cached formatted summary, null if not formatted yet. */
+    private String mFormattedSummary;
+
     public ListPreference(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
         super(context, attrs, defStyleAttr, defStyleRes);
 
@@ -89,6 +97,7 @@ public class ListPreference extends DialogPreference {
      */
     public void setEntries(CharSequence[] entries) {
         mEntries = entries;
+        mFormattedSummary = null;
     }
 
     /**
@@ -112,11 +121,15 @@ public class ListPreference extends DialogPreference {
      * The array to find the value to save for a preference when an entry from
      * entries is selected. If a user clicks on the second item in entries, the
      * second item in this array will be saved to the preference.
+     * <p>
+     * The values are indexed for lookup, set the array again after modifying it.
      *
      * @param entryValues The array to be used as values to save for the preference.
      */
     public void setEntryValues(CharSequence[] entryValues) {
         mEntryValues = entryValues;
+        mEntryValueIndex = null;
+        invalidateValueIndex();
     }
 
     /**
@@ -148,6 +161,7 @@ public class ListPreference extends DialogPreference {
         if (changed || !mValueSet) {
             mValue = value;
             mValueSet = true;
+            invalidateValueIndex();
             persistString(value);
             if (changed) {
                 notifyChanged();
@@ -165,12 +179,14 @@ public class ListPreference extends DialogPreference {
      */
     @Override
     public CharSequence getSummary() {
-        final CharSequence entry = getEntry();
         if (mSummary == null) {
             return super.getSummary();
-        } else {
-            return String.format(mSummary, entry == null ? "" : entry);
         }
+        if (mFormattedSummary == null) {
+            final CharSequence entry = getEntry();
+            mFormattedSummary = String.format(mSummary, entry == null ? "" : entry);
+        }
+        return mFormattedSummary;
     }
 
     /**
@@ -190,6 +206,7 @@ public class ListPreference extends DialogPreference {
         } else if (summary != null && !summary.equals(mSummary)) {
             mSummary = summary.toString();
         }
+        mFormattedSummary = null;
     }
 
     /**
@@ -199,7 +216,7 @@ public class ListPreference extends DialogPreference {
      */
     public void setValueIndex(int index) {
         if (mEntryValues != null) {
-            setValue(mEntryValues[index].toString());
+            setValue(getEntryValueIndex().valueAt(index));
         }
     }
 
@@ -230,18 +247,28 @@ public class ListPreference extends DialogPreference {
      * @return The index of the value, or -1 if not found.
      */
     public int findIndexOfValue(String value) {
-        if (value != null && mEntryValues != null) {
-            for (int i = mEntryValues.length - 1; i >= 0; i--) {
-                if (mEntryValues[i].equals(value)) {
-                    return i;
-                }
-            }
+        final EntryValueIndex index = getEntryValueIndex();
+        return index != null ? index.indexOf(value) : -1;
+    }
+
+    private EntryValueIndex getEntryValueIndex() {
+        if (mEntryValueIndex == null && mEntryValues != null) {
+            mEntryValueIndex = new EntryValueIndex(mEntryValues);
         }
-        return -1;
+        return mEntryValueIndex;
     }
 
     private int getValueIndex() {
-        return findIndexOfValue(mValue);
+        if (!mValueIndexValid) {
+            mValueIndex = findIndexOfValue(mValue);
+            mValueIndexValid = true;
+        }
+        return mValueIndex;
+    }
+
+    private void invalidateValueIndex() {
+        mValueIndexValid = false;
+        mFormattedSummary = null;
     }
 
     @Override
@@ -284,7 +311,7 @@ public class ListPreference extends DialogPreference {
         super.onDialogClosed(positiveResult);
 
         if (mClickedDialogEntryIndex >= 0 && mEntryValues != null) {
-            String value = mEntryValues[mClickedDialogEntryIndex].toString();
+            String value = getEntryValueIndex().valueAt(mClickedDialogEntryIndex);
             if (callChangeListener(value)) {
                 setValue(value);
             }
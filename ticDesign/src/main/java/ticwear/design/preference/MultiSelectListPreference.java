@@ -50,6 +50,9 @@ public class MultiSelectListPreference extends DialogPreference {
     private Set<String> mNewValues = new HashSet<String>();
     private boolean mPreferenceChanged;
 
+    /** Index of entry values, built on first lookup. */
+    private EntryValueIndex mEntryValueIndex;
+
     public MultiSelectListPreference(
             Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
         super(context, attrs, defStyleAttr, defStyleRes);
@@ -109,11 +112,14 @@ public class MultiSelectListPreference extends DialogPreference {
      * The array to find the value to save for a preference when an entry from
      * entries is selected. If a user clicks on the second item in entries, the
      * second item in this array will be saved to the preference.
+     * <p>
+     * The values are indexed for lookup, set the array again after modifying it.
      *
      * @param entryValues The array to be used as values to save for the preference.
      */
     public void setEntryValues(CharSequence[] entryValues) {
         mEntryValues = entryValues;
+        mEntryValueIndex = null;
     }
 
     /**
@@ -160,14 +166,15 @@ public class MultiSelectListPreference extends DialogPreference {
      * @return The index of the value, or -1 if not found.
      */
     public int findIndexOfValue(String value) {
-        if (value != null && mEntryValues != null) {
-            for (int i = mEntryValues.length - 1; i >= 0; i--) {
-                if (mEntryValues[i].equals(value)) {
-                    return i;
-                }
-            }
+        final EntryValueIndex index = getEntryValueIndex();
+        return index != null ? index.indexOf(value) : -1;
+    }
+
+    private EntryValueIndex getEntryValueIndex() {
+        if (mEntryValueIndex == null && mEntryValues != null) {
+            mEntryValueIndex = new EntryValueIndex(mEntryValues);
         }
-        return -1;
+        return mEntryValueIndex;
     }
 
     @Override
@@ -180,14 +187,16 @@ public class MultiSelectListPreference extends DialogPreference {
                     "an entryValues array.");
         }
 
+        final EntryValueIndex entryValueIndex = getEntryValueIndex();
         boolean[] checkedItems = getSelectedItems();
         builder.setMultiChoiceItems(mEntries, checkedItems,
                 new DialogInterface.OnMultiChoiceClickListener() {
                     public void onClick(DialogInterface dialog, int which, boolean isChecked) {
+                        final String value = entryValueIndex.valueAt(which);
                         if (isChecked) {
-                            mPreferenceChanged |= mNewValues.add(mEntryValues[which].toString());
+                            mPreferenceChanged |= mNewValues.add(value);
                         } else {
-                            mPreferenceChanged |= mNewValues.remove(mEntryValues[which].toString());
+                            mPreferenceChanged |= mNewValues.remove(value);
                         }
                     }
                 });
@@ -206,13 +215,15 @@ public class MultiSelectListPreference extends DialogPreference {
     }
 
     private boolean[] getSelectedItems() {
-        final CharSequence[] entries = mEntryValues;
-        final int entryCount = entries.length;
-        final Set<String> values = mValues;
-        boolean[] result = new boolean[entryCount];
-
-        for (int i = 0; i < entryCount; i++) {
-            result[i] = values.contains(entries[i].toString());
+        final EntryValueIndex entryValueIndex = getEntryValueIndex();
+        boolean[] result = new boolean[entryValueIndex.size()];
+
+        // Mark the selected values only, instead of converting and testing every entry.
+        for (String value : mValues) {
+            final int index = entryValueIndex.indexOf(value);
+            if (index >= 0) {
+                result[index] = true;
+            }
         }
 
         return result;
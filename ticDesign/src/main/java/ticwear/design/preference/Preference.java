@@ -42,7 +42,6 @@ import java.util.List;
 import java.util.Set;
 
 import ticwear.design.R;
-import ticwear.design.internal.CharSequences;
 import ticwear.design.widget.TicklableRecyclerView;
 
 /**
@@ -72,6 +71,11 @@ public class Preference implements Comparable<Preference> {
 
     private int mOrder = DEFAULT_ORDER;
     private CharSequence mTitle;
+    /**
+     * Lower-cased title used by {@link #compareTo(Preference)}, computed lazily and
+     * dropped when title changes.
+     */
+    private String mTitleSortKey;
     private int mTitleRes;
     private CharSequence mSummary;
     /**
@@ -449,6 +453,7 @@ public class Preference implements Comparable<Preference> {
         if (title == null && mTitle != null || title != null && !title.equals(mTitle)) {
             mTitleRes = 0;
             mTitle = title;
+            mTitleSortKey = null;
             notifyChanged();
         }
     }
@@ -927,9 +932,22 @@ public class Preference implements Comparable<Preference> {
         } else if (another.mTitle == null) {
             return -1;
         } else {
-            // Do name comparison
-            return CharSequences.compareToIgnoreCase(mTitle, another.mTitle);
+            // Do name comparison, same as CharSequences#compareToIgnoreCase on the titles.
+            return getTitleSortKey().compareTo(another.getTitleSortKey());
+        }
+    }
+
+    private String getTitleSortKey() {
+        if (mTitleSortKey == null) {
+            final CharSequence title = mTitle;
+            final int length = title.length();
+            final char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = Character.toLowerCase(title.charAt(i));
+            }
+            mTitleSortKey = new String(chars);
         }
+        return mTitleSortKey;
     }
 
     /**
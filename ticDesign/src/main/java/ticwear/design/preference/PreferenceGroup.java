@@ -296,8 +296,21 @@ public abstract class PreferenceGroup extends Preference implements GenericInfla
 
     void sortPreferences() {
         synchronized (this) {
-            Collections.sort(mPreferenceList);
+            // Preferences are inserted in order, so re-sorting is only needed if an order
+            // or title has changed since. Check that in one pass before sorting.
+            if (!isSorted(mPreferenceList)) {
+                Collections.sort(mPreferenceList);
+            }
+        }
+    }
+
+    private static boolean isSorted(List<Preference> preferences) {
+        for (int i = preferences.size() - 1; i > 0; i--) {
+            if (preferences.get(i - 1).compareTo(preferences.get(i)) > 0) {
+                return false;
+            }
         }
+        return true;
     }
 
     @Override
@@ -221,7 +221,13 @@ public class PreferenceGroupAdapter
 
     @Override
     public void onPreferenceChange(Preference preference) {
-        notifyDataSetChanged();
+        // Only rebind the changed row.
+        final int index = mPreferenceList.indexOf(preference);
+        if (index >= 0) {
+            notifyItemChanged(index);
+        } else {
+            notifyDataSetChanged();
+        }
     }
 
     @Override
@@ -34,6 +34,7 @@ import android.widget.TextView;
 
 import ticwear.design.DesignConfig;
 import ticwear.design.R;
+import ticwear.design.widget.FocusTransformAnimator;
 import ticwear.design.widget.FocusableLinearLayoutManager;
 import ticwear.design.widget.FocusableLinearLayoutManager.FocusState;
 import ticwear.design.widget.FocusableLinearLayoutManager.ViewHolder;
@@ -53,6 +54,27 @@ public class PreferenceViewHolder extends ViewHolder {
     protected float iconScaleDown;
     protected float itemAlphaDown;
 
+    private final FocusTransformAnimator transformAnimator =
+            new FocusTransformAnimator(new FocusTransformAnimator.Target() {
+                @Override
+                public void onTransform(float scale, float alpha) {
+                    applyTransform(scale, alpha);
+                }
+
+                @Override
+                public float getCurrentScale() {
+                    return itemView.getScaleX();
+                }
+
+                @Override
+                public float getCurrentAlpha() {
+                    // Alpha is applied to the texts only.
+                    if (titleView != null) return titleView.getAlpha();
+                    if (summaryView != null) return summaryView.getAlpha();
+                    return 1.0f;
+                }
+            });
+
     public PreferenceViewHolder(@NonNull ViewGroup parent, @LayoutRes int layoutResId) {
         this(parent, layoutResId, 0);
     }
@@ -164,49 +186,19 @@ public class PreferenceViewHolder extends ViewHolder {
     }
 
     private void transform(float scale, float alpha, long duration) {
-        itemView.animate().cancel();
-        if (titleView != null) titleView.animate().cancel();
-        if (summaryView != null) summaryView.animate().cancel();
+        transformAnimator.animateTo(scale, alpha, duration);
+    }
+
+    private void applyTransform(float scale, float alpha) {
         if (showIconAnimation()) {
-            iconView.animate().cancel();
-        }
-        if (duration > 0) {
-            itemView.animate()
-                    .setDuration(duration)
-                    .scaleX(scale)
-                    .scaleY(scale)
-                    .start();
-            if (titleView != null) {
-                titleView.animate()
-                        .setDuration(duration)
-                        .alpha(alpha)
-                        .start();
-            }
-            if (summaryView != null) {
-                summaryView.animate()
-                        .setDuration(duration)
-                        .alpha(alpha)
-                        .start();
-            }
-            if (showIconAnimation()) {
-                float inverseScale = 1.0f / scale;
-                iconView.animate()
-                        .setDuration(duration)
-                        .scaleX(inverseScale)
-                        .scaleY(inverseScale)
-                        .start();
-            }
-        } else {
-            if (showIconAnimation()) {
-                float inverseScale = 1.0f / scale;
-                iconView.setScaleX(inverseScale);
-                iconView.setScaleY(inverseScale);
-            }
-            if (titleView != null) titleView.setAlpha(alpha);
-            if (summaryView != null) summaryView.setAlpha(alpha);
-            itemView.setScaleX(scale);
-            itemView.setScaleY(scale);
+            float inverseScale = 1.0f / scale;
+            iconView.setScaleX(inverseScale);
+            iconView.setScaleY(inverseScale);
         }
+        if (titleView != null) titleView.setAlpha(alpha);
+        if (summaryView != null) summaryView.setAlpha(alpha);
+        itemView.setScaleX(scale);
+        itemView.setScaleY(scale);
     }
 
     private boolean showIconAnimation() {
@@ -20,6 +20,8 @@ package ticwear.design.preference;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.support.annotation.CallSuper;
@@ -31,6 +33,7 @@ import android.view.ViewGroup;
 import ticwear.design.R;
 import ticwear.design.widget.VolumeBar;
 import ticwear.design.widget.VolumeBar.OnVolumeChangedListener;
+import ticwear.design.widget.VolumeBar.OnVolumeTrackingListener;
 
 /**
  * A {@link Preference} that provides checkbox widget
@@ -39,21 +42,84 @@ import ticwear.design.widget.VolumeBar.OnVolumeChangedListener;
  * This preference will store a boolean into the SharedPreferences.
  */
 public class VolumePreference extends Preference {
+
+    /**
+     * Delay to coalesce persistence of volume changes while user is adjusting.
+     */
+    private static final long PERSIST_DELAY = 500;
+
     private int volume;
 
     private OnVolumeChangedListener mInternalVolumeChangedListener;
     private OnVolumeChangedListener mVolumeChangeListener;
 
+    // While tracking, volume only changes in memory, and is persisted on touch up.
+    private boolean mTracking;
+    private boolean mPersistPending;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mPersistRunnable = new Runnable() {
+        @Override
+        public void run() {
+            persistPendingVolume();
+        }
+    };
+
+    private final OnVolumeTrackingListener mInternalVolumeTrackingListener =
+            new OnVolumeTrackingListener() {
+                @Override
+                public void onStartTrackingTouch(VolumeBar volumeBar) {
+                    mTracking = true;
+                }
+
+                @Override
+                public void onStopTrackingTouch(VolumeBar volumeBar) {
+                    mTracking = false;
+                    persistPendingVolume();
+                }
+            };
+
 
     public void setVolume(int volume) {
         final boolean changed = this.volume != volume;
         if (changed) {
             this.volume = volume;
+            mHandler.removeCallbacks(mPersistRunnable);
+            mPersistPending = false;
             persistInt(this.volume);
             notifyChanged();
         }
     }
 
+    public int getVolume() {
+        return volume;
+    }
+
+    /**
+     * Keep the volume in memory, and persist it when user stops tracking, or after
+     * {@link #PERSIST_DELAY} of inactivity.
+     */
+    private void scheduleVolumePersist() {
+        mPersistPending = true;
+        mHandler.removeCallbacks(mPersistRunnable);
+        if (!mTracking) {
+            mHandler.postDelayed(mPersistRunnable, PERSIST_DELAY);
+        }
+    }
+
+    private void persistPendingVolume() {
+        mHandler.removeCallbacks(mPersistRunnable);
+        if (mPersistPending) {
+            mPersistPending = false;
+            persistInt(volume);
+        }
+    }
+
+    @Override
+    protected void onPrepareForRemoval() {
+        persistPendingVolume();
+        super.onPrepareForRemoval();
+    }
+
     @Override
     protected Object onGetDefaultValue(TypedArray a, int index) {
         return a.getInt(index, 0);
@@ -67,6 +133,7 @@ public class VolumePreference extends Preference {
 
     @Override
     protected Parcelable onSaveInstanceState() {
+        persistPendingVolume();
         final Parcelable superState = super.onSaveInstanceState();
         if (isPersistent()) {
             // No need to save instance state since it's persistent
@@ -130,11 +197,12 @@ public class VolumePreference extends Preference {
         mInternalVolumeChangedListener = new OnVolumeChangedListener() {
             @Override
             public void onVolumeChanged(VolumeBar volumeBar, int progress, boolean fromUser) {
-                volume = volumeBar.getProgress();
-                if (fromUser) {
-                    persistInt(volume);
+                // The bar has already shown the new value, no need to rebind the row.
+                final boolean changed = volume != progress;
+                volume = progress;
+                if (fromUser && changed) {
+                    scheduleVolumePersist();
                 }
-                setVolume(volumeBar.getProgress());
                 if (mVolumeChangeListener != null) {
                     mVolumeChangeListener.onVolumeChanged(volumeBar, progress, fromUser);
                 }
@@ -190,6 +258,7 @@ public class VolumePreference extends Preference {
             PreferenceData myData = (PreferenceData) data;
             myData.volume = volumePreference.volume;
             myData.volumeChangedListener = volumePreference.mInternalVolumeChangedListener;
+            myData.volumeTrackingListener = volumePreference.mInternalVolumeTrackingListener;
         }
 
         @Override
@@ -199,6 +268,7 @@ public class VolumePreference extends Preference {
             PreferenceData myData = (PreferenceData) preferenceData;
             if (volumeBar != null) {
                 volumeBar.setOnVolumeChangedListetener(myData.volumeChangedListener);
+                volumeBar.setOnVolumeTrackingListener(myData.volumeTrackingListener);
                 volumeBar.setProgress(myData.volume);
             }
         }
@@ -206,6 +276,7 @@ public class VolumePreference extends Preference {
         protected static class PreferenceData extends PreferenceViewHolder.PreferenceData {
             protected int volume;
             protected OnVolumeChangedListener volumeChangedListener;
+            protected OnVolumeTrackingListener volumeTrackingListener;
         }
 
     }
@@ -178,6 +178,7 @@ public class ColorPalette {
 
         private static final int COLORS_COUNT = ColorName.values().length;
         private static final int DECORATES_COUNT = ColorDecorate.values().length;
+        private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
         private Context context;
         private int colorResIndex;
@@ -207,7 +208,7 @@ public class ColorPalette {
         public int value() {
             if (colorResIndex >= 0 && colorResIndex < COLORS_COUNT &&
                     colorDecIndex >= 0 && colorDecIndex < DECORATES_COUNT) {
-                return context.getResources().getColor(colorList[colorResIndex][colorDecIndex]);
+                return ThemeUtils.getResourceColor(context, colorList[colorResIndex][colorDecIndex]);
             } else {
                 return android.graphics.Color.TRANSPARENT;
             }
@@ -217,12 +218,22 @@ public class ColorPalette {
             int value = value();
 
             if (android.graphics.Color.alpha(value) < 0xff) {
-                return String.format("#%08x", value());
+                return toHexString(value, 8);
             } else {
-                return String.format("#%06x", value() & 0xffffff);
+                return toHexString(value, 6);
             }
         }
 
+        private static String toHexString(int value, int digits) {
+            char[] chars = new char[digits + 1];
+            chars[0] = '#';
+            for (int i = digits; i > 0; i--) {
+                chars[i] = HEX_DIGITS[value & 0xf];
+                value >>>= 4;
+            }
+            return new String(chars);
+        }
+
         public ColorName name() {
             return ColorName.values()[colorResIndex];
         }
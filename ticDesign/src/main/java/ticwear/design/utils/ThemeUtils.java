@@ -17,17 +17,29 @@
 package ticwear.design.utils;
 
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.Resources.Theme;
 import android.content.res.TypedArray;
 import android.os.Build;
+import android.support.annotation.AttrRes;
+import android.support.annotation.ColorRes;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
 import android.util.TypedValue;
 
+import java.util.WeakHashMap;
+
 import ticwear.design.R;
 
 public class ThemeUtils {
 
 	private static final int[] DESIGN_CHECK_ATTRS = { R.attr.tic_windowIconStyle };
-	private static TypedValue value;
+
+	/**
+	 * Resolved colors, keyed by theme. Guarded by itself.
+	 */
+	private static final WeakHashMap<Theme, ColorCache> sColorCaches = new WeakHashMap<>();
+	private static final TypedValue sTempValue = new TypedValue();
 
 	public static void checkDesignTheme(Context context) {
 		TypedArray a = context.obtainStyledAttributes(DESIGN_CHECK_ATTRS);
@@ -47,24 +59,113 @@ public class ThemeUtils {
 		return (int)(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, sp, context.getResources().getDisplayMetrics()) + 0.5f);
 	}
 
-	private static int getColor(Context context, int id, int defaultValue){
-		if(value == null)
-			value = new TypedValue();
+	/**
+	 * Get color of given theme attribute. The resolved color is cached per theme,
+	 * and the cache is dropped when the configuration of context changes.
+	 * This method is thread safe.
+	 *
+	 * @see #invalidateColorCache()
+	 */
+	public static int getColor(Context context, @AttrRes int id, int defaultValue){
+		Theme theme = context.getTheme();
+		if (theme == null) {
+			return defaultValue;
+		}
 
-		try{
-			Theme theme = context.getTheme();
-			if(theme != null && theme.resolveAttribute(id, value, true)){
-                if (value.type >= TypedValue.TYPE_FIRST_INT && value.type <= TypedValue.TYPE_LAST_INT)
-                    return value.data;
-                else if (value.type == TypedValue.TYPE_STRING)
-                    return context.getResources().getColor(value.resourceId);
-            }
+		synchronized (sColorCaches) {
+			ColorCache cache = getColorCache(context, theme);
+			int index = cache.colors.indexOfKey(id);
+			if (index >= 0) {
+				return cache.colors.valueAt(index);
+			}
+			if (cache.missing.get(id)) {
+				return defaultValue;
+			}
+
+			final TypedValue value = sTempValue;
+			try{
+				if(theme.resolveAttribute(id, value, true)){
+					int color;
+					if (value.type >= TypedValue.TYPE_FIRST_INT && value.type <= TypedValue.TYPE_LAST_INT)
+						color = value.data;
+					else if (value.type == TypedValue.TYPE_STRING)
+						color = context.getResources().getColor(value.resourceId);
+					else {
+						cache.missing.put(id, true);
+						return defaultValue;
+					}
+					cache.colors.put(id, color);
+					return color;
+				}
+			}
+			catch(Exception ex){}
+
+			cache.missing.put(id, true);
 		}
-		catch(Exception ex){}
 
 		return defaultValue;
 	}
 
+	/**
+	 * Get color of given resource, cached the same way as {@link #getColor(Context, int, int)}.
+	 */
+	@SuppressWarnings("deprecation")
+	public static int getResourceColor(Context context, @ColorRes int id){
+		Theme theme = context.getTheme();
+		if (theme == null) {
+			return context.getResources().getColor(id);
+		}
+
+		synchronized (sColorCaches) {
+			ColorCache cache = getColorCache(context, theme);
+			int index = cache.colors.indexOfKey(id);
+			if (index >= 0) {
+				return cache.colors.valueAt(index);
+			}
+			int color = context.getResources().getColor(id);
+			cache.colors.put(id, color);
+			return color;
+		}
+	}
+
+	/**
+	 * Drop all cached colors. Call this after a theme is modified in place, such as
+	 * with {@link Theme#applyStyle(int, boolean)}.
+	 */
+	public static void invalidateColorCache(){
+		synchronized (sColorCaches) {
+			sColorCaches.clear();
+		}
+	}
+
+	private static ColorCache getColorCache(Context context, Theme theme){
+		Configuration config = context.getResources().getConfiguration();
+		ColorCache cache = sColorCaches.get(theme);
+		if (cache == null) {
+			cache = new ColorCache(config);
+			sColorCaches.put(theme, cache);
+		} else if (!cache.config.equals(config)) {
+			cache.reset(config);
+		}
+		return cache;
+	}
+
+	private static class ColorCache {
+		final Configuration config = new Configuration();
+		final SparseIntArray colors = new SparseIntArray();
+		final SparseBooleanArray missing = new SparseBooleanArray();
+
+		ColorCache(Configuration config) {
+			this.config.setTo(config);
+		}
+
+		void reset(Configuration config) {
+			this.config.setTo(config);
+			colors.clear();
+			missing.clear();
+		}
+	}
+
 	public static int windowBackground(Context context, int defaultValue){
 		return getColor(context, android.R.attr.windowBackground, defaultValue);
 	}
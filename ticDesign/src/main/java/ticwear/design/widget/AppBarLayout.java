@@ -42,6 +42,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import ticwear.design.DesignConfig;
@@ -139,6 +140,8 @@ public class AppBarLayout extends LinearLayout {
     boolean mHaveChildWithInterpolator;
     boolean mHaveChildWithResistance;
 
+    private final OffsetSegments mOffsetSegments = new OffsetSegments();
+
     private float mTargetElevation;
 
     private int mPendingAction = PENDING_ACTION_NONE;
@@ -255,6 +258,17 @@ public class AppBarLayout extends LinearLayout {
         mTotalScrollRange = INVALID_SCROLL_RANGE;
         mDownPreScrollRange = INVALID_SCROLL_RANGE;
         mDownScrollRange = INVALID_SCROLL_RANGE;
+        mOffsetSegments.invalidate();
+    }
+
+    /**
+     * Get the segment table of children, built once after layout.
+     */
+    OffsetSegments getOffsetSegments() {
+        if (!mOffsetSegments.isValid()) {
+            mOffsetSegments.build(this);
+        }
+        return mOffsetSegments;
     }
 
     @Override
@@ -541,6 +555,7 @@ public class AppBarLayout extends LinearLayout {
     private void setWindowInsets(WindowInsetsCompat insets) {
         // Invalidate the total scroll range...
         mTotalScrollRange = INVALID_SCROLL_RANGE;
+        mOffsetSegments.invalidate();
         mLastInsets = insets;
 
         // Now dispatch them to our children
@@ -553,6 +568,192 @@ public class AppBarLayout extends LinearLayout {
         }
     }
 
+    /**
+     * Offset span, scrollable height, interpolator and resistance of children, which only
+     * change on layout. So interpolation and resistance on scroll don't need to walk through
+     * children and their layout params.
+     */
+    static final class OffsetSegments {
+
+        private boolean mValid;
+        private int mCount;
+        private int[] mTops = new int[0];
+        private int[] mBottoms = new int[0];
+        private int[] mScrollableHeights = new int[0];
+        private Interpolator[] mInterpolators = new Interpolator[0];
+        // Interpolated diff of each pixel in scrollable height, built on first use, and
+        // kept across builds until scrollable height or interpolator of the segment changes.
+        private int[][] mInterpolatedDiffs = new int[0][];
+        private boolean[] mInterpolatedDiffsValid = new boolean[0];
+
+        private int mResistanceCount;
+        private int[] mResistanceChildren = new int[0];
+        private float[] mResistanceFactors = new float[0];
+        private int mMaxOffsetLimit;
+
+        boolean isValid() {
+            return mValid;
+        }
+
+        void invalidate() {
+            mValid = false;
+        }
+
+        void build(AppBarLayout layout) {
+            final int count = layout.getChildCount();
+            if (mTops.length < count) {
+                mTops = new int[count];
+                mBottoms = new int[count];
+                mScrollableHeights = Arrays.copyOf(mScrollableHeights, count);
+                mInterpolators = Arrays.copyOf(mInterpolators, count);
+                mInterpolatedDiffs = Arrays.copyOf(mInterpolatedDiffs, count);
+                mInterpolatedDiffsValid = Arrays.copyOf(mInterpolatedDiffsValid, count);
+                mResistanceChildren = new int[count];
+                mResistanceFactors = new float[count];
+            }
+
+            float maxResistanceFactor = 0;
+            float totalResistanceFactor = 0;
+            int maxOffsetLimit = 0;
+            int segmentCount = 0;
+            for (int i = 0; i < count; i++) {
+                final View child = layout.getChildAt(i);
+                final LayoutParams childLp = (LayoutParams) child.getLayoutParams();
+
+                final float factor = childLp.getScrollResistanceFactor();
+                totalResistanceFactor += factor;
+                maxResistanceFactor = Math.max(factor, maxResistanceFactor);
+                maxOffsetLimit = Math.max(childLp.getScrollOffsetLimit(), maxOffsetLimit);
+
+                if (child.getVisibility() == GONE) {
+                    // Bounds of a gone child are stale, and would break the order of segments.
+                    continue;
+                }
+
+                final int flags = childLp.getScrollFlags();
+                int childScrollableHeight = 0;
+                if ((flags & LayoutParams.SCROLL_FLAG_SCROLL) != 0) {
+                    // We're set to scroll so add the child's height plus margin
+                    childScrollableHeight += child.getHeight() + childLp.topMargin
+                            + childLp.bottomMargin;
+
+                    if ((flags & LayoutParams.SCROLL_FLAG_EXIT_UNTIL_COLLAPSED) != 0) {
+                        // For a collapsing scroll, we to take the collapsed height
+                        // into account.
+                        childScrollableHeight -= ViewCompat.getMinimumHeight(child);
+                    }
+                }
+                if (ViewCompat.getFitsSystemWindows(child)) {
+                    childScrollableHeight -= layout.getTopInset();
+                }
+
+                final Interpolator interpolator = childLp.getScrollInterpolator();
+                if (mScrollableHeights[segmentCount] != childScrollableHeight
+                        || mInterpolators[segmentCount] != interpolator) {
+                    mInterpolatedDiffsValid[segmentCount] = false;
+                }
+                mTops[segmentCount] = child.getTop();
+                mBottoms[segmentCount] = child.getBottom();
+                mScrollableHeights[segmentCount] = childScrollableHeight;
+                mInterpolators[segmentCount] = interpolator;
+                segmentCount++;
+            }
+
+            int resistanceCount = 0;
+            for (int i = 0; i < count; i++) {
+                final LayoutParams childLp = (LayoutParams) layout.getChildAt(i).getLayoutParams();
+                if (overScrollBounceEnabled(childLp)) {
+                    mResistanceChildren[resistanceCount] = i;
+                    mResistanceFactors[resistanceCount] = maxResistanceFactor *
+                            childLp.getScrollResistanceFactor() / totalResistanceFactor;
+                    resistanceCount++;
+                }
+            }
+
+            mCount = segmentCount;
+            mResistanceCount = resistanceCount;
+            mMaxOffsetLimit = maxOffsetLimit;
+            mValid = true;
+        }
+
+        /**
+         * @return Index of the segment whose span contains given offset, or -1.
+         */
+        int findSegment(int absOffset) {
+            // Non-gone children are laid out vertically, so bottoms are in order.
+            int low = 0;
+            int high = mCount - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (mBottoms[mid] < absOffset) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low < mCount && mTops[low] <= absOffset ? low : -1;
+        }
+
+        int interpolateOffset(int offset) {
+            final int absOffset = Math.abs(offset);
+            final int index = findSegment(absOffset);
+            if (index < 0) {
+                return offset;
+            }
+
+            final Interpolator interpolator = mInterpolators[index];
+            final int childScrollableHeight = mScrollableHeights[index];
+            if (interpolator == null || childScrollableHeight <= 0) {
+                // The view on the offset isn't suitable for interpolated scrolling.
+                return offset;
+            }
+
+            final int top = mTops[index];
+            final int offsetForView = absOffset - top;
+            final int interpolatedDiff;
+            if (offsetForView <= childScrollableHeight) {
+                int[] diffs = mInterpolatedDiffs[index];
+                if (!mInterpolatedDiffsValid[index]) {
+                    if (diffs == null || diffs.length <= childScrollableHeight) {
+                        diffs = new int[childScrollableHeight + 1];
+                        mInterpolatedDiffs[index] = diffs;
+                    }
+                    for (int i = 0; i <= childScrollableHeight; i++) {
+                        diffs[i] = interpolate(interpolator, i, childScrollableHeight);
+                    }
+                    mInterpolatedDiffsValid[index] = true;
+                }
+                interpolatedDiff = diffs[offsetForView];
+            } else {
+                interpolatedDiff = interpolate(interpolator, offsetForView, childScrollableHeight);
+            }
+
+            return Integer.signum(offset) * (top + interpolatedDiff);
+        }
+
+        private static int interpolate(Interpolator interpolator, int offsetForView,
+                                       int childScrollableHeight) {
+            return Math.round(childScrollableHeight *
+                    interpolator.getInterpolation(offsetForView / (float) childScrollableHeight));
+        }
+
+        int getResistanceCount() {
+            return mResistanceCount;
+        }
+
+        int getResistanceChild(int i) {
+            return mResistanceChildren[i];
+        }
+
+        float getResistanceFactor(int i) {
+            return mResistanceFactors[i];
+        }
+
+        int getMaxOffsetLimit() {
+            return mMaxOffsetLimit;
+        }
+    }
+
     public static class LayoutParams extends LinearLayout.LayoutParams {
 
         /** @hide */
@@ -1236,83 +1437,25 @@ public class AppBarLayout extends LinearLayout {
         }
 
         private int interpolateOffset(AppBarLayout layout, final int offset) {
-            final int absOffset = Math.abs(offset);
-
-            for (int i = 0, z = layout.getChildCount(); i < z; i++) {
-                final View child = layout.getChildAt(i);
-                final AppBarLayout.LayoutParams childLp = (LayoutParams) child.getLayoutParams();
-                final Interpolator interpolator = childLp.getScrollInterpolator();
-
-                if (absOffset >= child.getTop() && absOffset <= child.getBottom()) {
-                    if (interpolator != null) {
-                        int childScrollableHeight = 0;
-                        final int flags = childLp.getScrollFlags();
-                        if ((flags & LayoutParams.SCROLL_FLAG_SCROLL) != 0) {
-                            // We're set to scroll so add the child's height plus margin
-                            childScrollableHeight += child.getHeight() + childLp.topMargin
-                                    + childLp.bottomMargin;
-
-                            if ((flags & LayoutParams.SCROLL_FLAG_EXIT_UNTIL_COLLAPSED) != 0) {
-                                // For a collapsing scroll, we to take the collapsed height
-                                // into account.
-                                childScrollableHeight -= ViewCompat.getMinimumHeight(child);
-                            }
-                        }
-
-                        if (ViewCompat.getFitsSystemWindows(child)) {
-                            childScrollableHeight -= layout.getTopInset();
-                        }
-
-                        if (childScrollableHeight > 0) {
-                            final int offsetForView = absOffset - child.getTop();
-                            final int interpolatedDiff = Math.round(childScrollableHeight *
-                                    interpolator.getInterpolation(
-                                            offsetForView / (float) childScrollableHeight));
-
-                            return Integer.signum(offset) * (child.getTop() + interpolatedDiff);
-                        }
-                    }
-
-                    // If we get to here then the view on the offset isn't suitable for interpolated
-                    // scrolling. So break out of the loop
-                    break;
-                }
-            }
-
-            return offset;
+            return layout.getOffsetSegments().interpolateOffset(offset);
         }
 
         private int resistanceSizeChange(AppBarLayout layout, final int offset) {
             if (offset <= 0)
                 return offset;
 
-            float maxResistanceFactor = 0;
-            float totalResistanceFactor = 0;
-            int maxOffsetLimit = 0;
-            for (int i = 0, z = layout.getChildCount(); i < z; i++) {
-                final View child = layout.getChildAt(i);
-                final AppBarLayout.LayoutParams childLp = (LayoutParams) child.getLayoutParams();
-                final float factor = childLp.getScrollResistanceFactor();
-                final int offsetLimit = childLp.getScrollOffsetLimit();
-                totalResistanceFactor += factor;
-                maxResistanceFactor = Math.max(factor, maxResistanceFactor);
-                maxOffsetLimit = Math.max(offsetLimit, maxOffsetLimit);
-            }
-            final int limitedOffset = Math.min(maxOffsetLimit, offset);
+            final OffsetSegments segments = layout.getOffsetSegments();
+            final int limitedOffset = Math.min(segments.getMaxOffsetLimit(), offset);
             int totalOffset = 0;
-            for (int i = 0, z = layout.getChildCount(); i < z; i++) {
-                final View child = layout.getChildAt(i);
+            for (int i = 0, z = segments.getResistanceCount(); i < z; i++) {
+                final View child = layout.getChildAt(segments.getResistanceChild(i));
                 final AppBarLayout.LayoutParams childLp = (LayoutParams) child.getLayoutParams();
-                if (overScrollBounceEnabled(childLp)) {
-                    final float factor = childLp.getScrollResistanceFactor();
-                    final float averagedFactor = maxResistanceFactor * factor / totalResistanceFactor;
-                    final int factoredOffset = (int) (averagedFactor * limitedOffset);
+                final int factoredOffset = (int) (segments.getResistanceFactor(i) * limitedOffset);
 
-                    totalOffset+= factoredOffset;
+                totalOffset+= factoredOffset;
 
-                    childLp.height = childLp.mOverScrollOriginalHeight + factoredOffset;
-                    child.setLayoutParams(childLp);
-                }
+                childLp.height = childLp.mOverScrollOriginalHeight + factoredOffset;
+                child.setLayoutParams(childLp);
             }
 
             ViewGroup.LayoutParams layoutParams = layout.getLayoutParams();
@@ -18,6 +18,8 @@ package ticwear.design.widget;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.database.DataSetObserver;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -25,7 +27,10 @@ import android.graphics.Paint.Style;
 import android.graphics.drawable.Drawable;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v4.view.MotionEventCompat;
+import android.support.v4.view.PagerAdapter;
 import android.support.v4.view.ViewConfigurationCompat;
 import android.support.v4.view.ViewPager;
 import android.util.AttributeSet;
@@ -69,6 +74,46 @@ public class CirclePageIndicator extends View implements PageIndicator {
     private int mActivePointerId = INVALID_POINTER;
     private boolean mIsDragging;
 
+    /**
+     * Cached page count, refreshed when the adapter notifies a change.
+     */
+    private int mPageCount;
+    private final DataSetObserver mAdapterObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onInvalidated() {
+            notifyDataSetChanged();
+        }
+    };
+    private final ViewPager.OnAdapterChangeListener mAdapterChangeListener =
+            new ViewPager.OnAdapterChangeListener() {
+                @Override
+                public void onAdapterChanged(@NonNull ViewPager viewPager,
+                                             @Nullable PagerAdapter oldAdapter,
+                                             @Nullable PagerAdapter newAdapter) {
+                    if (oldAdapter != null) {
+                        oldAdapter.unregisterDataSetObserver(mAdapterObserver);
+                    }
+                    if (newAdapter != null) {
+                        newAdapter.registerDataSetObserver(mAdapterObserver);
+                    }
+                    notifyDataSetChanged();
+                }
+            };
+
+    /**
+     * Static page dots are rendered once into this bitmap, and only the selected
+     * dot is drawn on each frame.
+     */
+    private boolean mPageCacheEnabled = true;
+    private boolean mPageCacheDirty = true;
+    private Bitmap mPageCache;
+    private Canvas mPageCacheCanvas;
+
 
     public CirclePageIndicator(Context context) {
         this(context, null);
@@ -111,7 +156,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
 
     public void setCentered(boolean centered) {
         mCentered = centered;
-        invalidate();
+        invalidatePageCache();
     }
 
     public boolean isCentered() {
@@ -120,7 +165,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
 
     public void setPageColor(int pageColor) {
         mPaintPageFill.setColor(pageColor);
-        invalidate();
+        invalidatePageCache();
     }
 
     public int getPageColor() {
@@ -141,6 +186,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
             case HORIZONTAL:
             case VERTICAL:
                 mOrientation = orientation;
+                mPageCacheDirty = true;
                 requestLayout();
                 break;
 
@@ -155,7 +201,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
 
     public void setStrokeColor(int strokeColor) {
         mPaintStroke.setColor(strokeColor);
-        invalidate();
+        invalidatePageCache();
     }
 
     public int getStrokeColor() {
@@ -164,7 +210,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
 
     public void setStrokeWidth(float strokeWidth) {
         mPaintStroke.setStrokeWidth(strokeWidth);
-        invalidate();
+        invalidatePageCache();
     }
 
     public float getStrokeWidth() {
@@ -173,7 +219,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
 
     public void setRadius(float radius) {
         mRadius = radius;
-        invalidate();
+        invalidatePageCache();
     }
 
     public float getRadius() {
@@ -189,6 +235,58 @@ public class CirclePageIndicator extends View implements PageIndicator {
         return mSnap;
     }
 
+    /**
+     * Set whether the static page dots should be rendered into a cached bitmap.
+     * When enabled, only the selected dot is drawn while the pager is scrolling.
+     */
+    public void setPageCacheEnabled(boolean enabled) {
+        if (mPageCacheEnabled == enabled) {
+            return;
+        }
+        mPageCacheEnabled = enabled;
+        if (!enabled) {
+            releasePageCache();
+        }
+        invalidatePageCache();
+    }
+
+    public boolean isPageCacheEnabled() {
+        return mPageCacheEnabled;
+    }
+
+    private void invalidatePageCache() {
+        mPageCacheDirty = true;
+        invalidate();
+    }
+
+    private void releasePageCache() {
+        if (mPageCache != null) {
+            mPageCache.recycle();
+            mPageCache = null;
+            mPageCacheCanvas = null;
+        }
+        mPageCacheDirty = true;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mPageCacheDirty = true;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        // Padding changes only come with a layout pass.
+        mPageCacheDirty = true;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releasePageCache();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
@@ -196,7 +294,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
         if (mViewPager == null) {
             return;
         }
-        final int count = mViewPager.getAdapter().getCount();
+        final int count = mPageCount;
         if (count == 0) {
             return;
         }
@@ -233,12 +331,52 @@ public class CirclePageIndicator extends View implements PageIndicator {
         float dX;
         float dY;
 
+        if (mPageCacheEnabled && getWidth() > 0 && getHeight() > 0) {
+            if (mPageCache == null || mPageCache.getWidth() != getWidth()
+                    || mPageCache.getHeight() != getHeight()) {
+                releasePageCache();
+                mPageCache = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+                mPageCacheCanvas = new Canvas(mPageCache);
+            }
+            if (mPageCacheDirty) {
+                mPageCache.eraseColor(Color.TRANSPARENT);
+                drawPages(mPageCacheCanvas, count, longOffset, shortOffset);
+                mPageCacheDirty = false;
+            }
+            canvas.drawBitmap(mPageCache, 0, 0, null);
+        } else {
+            drawPages(canvas, count, longOffset, shortOffset);
+        }
+
+        //Draw the filled circle according to the current scroll
+        float cx = (mSnap ? mSnapPage : mCurrentPage) * threeRadius;
+        if (!mSnap) {
+            cx += mPageOffset * threeRadius;
+        }
+        if (mOrientation == HORIZONTAL) {
+            dX = longOffset + cx;
+            dY = shortOffset;
+        } else {
+            dX = shortOffset;
+            dY = longOffset + cx;
+        }
+        canvas.drawCircle(dX, dY, mRadius, mPaintFill);
+    }
+
+    /**
+     * Draw the stroked (unselected) circle of every page.
+     */
+    private void drawPages(Canvas canvas, int count, float longOffset, float shortOffset) {
+        final float threeRadius = mRadius * 3;
+
+        float dX;
+        float dY;
+
         float pageFillRadius = mRadius;
         if (mPaintStroke.getStrokeWidth() > 0) {
             pageFillRadius -= mPaintStroke.getStrokeWidth() / 2.0f;
         }
 
-        //Draw stroked circles
         for (int iLoop = 0; iLoop < count; iLoop++) {
             float drawLong = longOffset + (iLoop * threeRadius);
             if (mOrientation == HORIZONTAL) {
@@ -258,27 +396,13 @@ public class CirclePageIndicator extends View implements PageIndicator {
                 canvas.drawCircle(dX, dY, mRadius, mPaintStroke);
             }
         }
-
-        //Draw the filled circle according to the current scroll
-        float cx = (mSnap ? mSnapPage : mCurrentPage) * threeRadius;
-        if (!mSnap) {
-            cx += mPageOffset * threeRadius;
-        }
-        if (mOrientation == HORIZONTAL) {
-            dX = longOffset + cx;
-            dY = shortOffset;
-        } else {
-            dX = shortOffset;
-            dY = longOffset + cx;
-        }
-        canvas.drawCircle(dX, dY, mRadius, mPaintFill);
     }
 
     public boolean onTouchEvent(android.view.MotionEvent ev) {
         if (super.onTouchEvent(ev)) {
             return true;
         }
-        if ((mViewPager == null) || (mViewPager.getAdapter().getCount() == 0)) {
+        if ((mViewPager == null) || (mPageCount == 0)) {
             return false;
         }
 
@@ -313,7 +437,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
             case MotionEvent.ACTION_CANCEL:
             case MotionEvent.ACTION_UP:
                 if (!mIsDragging) {
-                    final int count = mViewPager.getAdapter().getCount();
+                    final int count = mPageCount;
                     final int width = getWidth();
                     final float halfWidth = width / 2f;
                     final float sixthWidth = width / 6f;
@@ -364,13 +488,19 @@ public class CirclePageIndicator extends View implements PageIndicator {
         }
         if (mViewPager != null) {
             mViewPager.setOnPageChangeListener(null);
+            mViewPager.removeOnAdapterChangeListener(mAdapterChangeListener);
+            if (mViewPager.getAdapter() != null) {
+                mViewPager.getAdapter().unregisterDataSetObserver(mAdapterObserver);
+            }
         }
         if (view.getAdapter() == null) {
             throw new IllegalStateException("ViewPager does not have adapter instance.");
         }
         mViewPager = view;
         mViewPager.setOnPageChangeListener(this);
-        invalidate();
+        mViewPager.addOnAdapterChangeListener(mAdapterChangeListener);
+        mViewPager.getAdapter().registerDataSetObserver(mAdapterObserver);
+        notifyDataSetChanged();
     }
 
     @Override
@@ -391,6 +521,13 @@ public class CirclePageIndicator extends View implements PageIndicator {
 
     @Override
     public void notifyDataSetChanged() {
+        PagerAdapter adapter = mViewPager == null ? null : mViewPager.getAdapter();
+        int count = adapter == null ? 0 : adapter.getCount();
+        if (count != mPageCount) {
+            mPageCount = count;
+            mPageCacheDirty = true;
+            requestLayout();
+        }
         invalidate();
     }
 
@@ -463,7 +600,7 @@ public class CirclePageIndicator extends View implements PageIndicator {
             result = specSize;
         } else {
             //Calculate the width according the views count
-            final int count = mViewPager.getAdapter().getCount();
+            final int count = mPageCount;
             result = (int)(getPaddingLeft() + getPaddingRight()
                     + (count * 2 * mRadius) + (count - 1) * mRadius + 1);
             //Respect AT_MOST value if that was what is called for by measureSpec
@@ -23,6 +23,7 @@ import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
+import android.graphics.RectF;
 
 /**
  * A classic edge effect will draw a arc pointer to content, with single fill color.
@@ -35,7 +36,10 @@ public class ClassicEdgeEffect extends EdgeEffect {
     private static final float SIN = (float) Math.sin(ANGLE);
     private static final float COS = (float) Math.cos(ANGLE);
 
+    private static final int MAX_ALPHA = 0x7f;
+
     private final Paint mPaint = new Paint();
+    private final RectF mOval = new RectF();
     private float mRadius;
     private float mBaseGlowScale;
 
@@ -90,22 +94,27 @@ public class ClassicEdgeEffect extends EdgeEffect {
      */
     @Override
     public void onDraw(Canvas canvas) {
-        final int count = canvas.save();
-
         final Rect bounds = getBounds();
-        final float centerX = bounds.centerX();
-        final float centerY = bounds.height() - mRadius;
-
-        canvas.scale(1.f, Math.min(getGlowScaleY(), 1.f) * mBaseGlowScale, centerX, 0);
+        final float scaleY = Math.min(getGlowScaleY(), 1.f) * mBaseGlowScale;
 
         final float displacement = Math.max(0, Math.min(getDisplacement(), 1.f)) - 0.5f;
-        float translateX = bounds.width() * displacement / 2;
+        final float centerX = bounds.centerX() + bounds.width() * displacement / 2;
+        final float centerY = bounds.height() - mRadius;
 
-        canvas.clipRect(bounds);
-        canvas.translate(translateX, 0);
-        mPaint.setAlpha((int) (0x7f * getGlowAlpha()));
-        canvas.drawCircle(centerX, centerY, mRadius, mPaint);
+        // The circle scaled from the top edge, as an oval, so no canvas transform needed.
+        mOval.set(centerX - mRadius, (centerY - mRadius) * scaleY,
+                centerX + mRadius, (centerY + mRadius) * scaleY);
+
+        final int count = canvas.save();
+        canvas.clipRect(bounds.left, bounds.top * scaleY, bounds.right, bounds.bottom * scaleY);
+        mPaint.setAlpha((int) (MAX_ALPHA * getGlowAlpha()));
+        canvas.drawOval(mOval, mPaint);
         canvas.restoreToCount(count);
     }
 
+    @Override
+    protected boolean isGlowVisible() {
+        return (int) (MAX_ALPHA * getGlowAlpha()) > 0 && getGlowScaleY() * mBaseGlowScale > 0;
+    }
+
 }
@@ -3,15 +3,17 @@ package ticwear.design.widget;
 import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
 import android.util.AttributeSet;
-import android.util.TypedValue;
 import android.view.View;
 import android.view.animation.AccelerateDecelerateInterpolator;
 import android.view.animation.LinearInterpolator;
 
 import ticwear.design.R;
+import ticwear.design.utils.ThemeUtils;
 
 /**
  * 内置三种固定尺寸 (150*150, 120*120, 32*32)
@@ -59,6 +61,15 @@ public class ClockLoadingView extends View {
     private float mMinuteHandHeight;
 
     private Paint mPaint;
+    private Paint mHourHandPaint;
+    private Paint mMinuteHandPaint;
+
+    /**
+     * The background circle never moves, so it's rendered once per size into this bitmap.
+     */
+    private Bitmap mBgCache;
+    private float mCenterX;
+    private float mCenterY;
 
     private ValueAnimator valueAnimator;
     private float animatedValue;
@@ -66,11 +77,10 @@ public class ClockLoadingView extends View {
     public ClockLoadingView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        TypedValue colorAccent = new TypedValue();
-        context.getTheme().resolveAttribute(android.R.attr.colorAccent, colorAccent, true);
+        int colorAccent = ThemeUtils.colorAccent(context, Color.TRANSPARENT);
 
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.ClockLoadingView);
-        mViewColor = typedArray.getColor(R.styleable.ClockLoadingView_tic_clv_progressColor, colorAccent.data);
+        mViewColor = typedArray.getColor(R.styleable.ClockLoadingView_tic_clv_progressColor, colorAccent);
         mOneCycleDuration = typedArray.getInteger(R.styleable.ClockLoadingView_tic_clv_cycleDuration, 8000);
         mStyle = typedArray.getInt(R.styleable.ClockLoadingView_tic_clv_style, STYLE_CUSTOM);
         if (STYLE_LARGE == mStyle) {
@@ -112,6 +122,12 @@ public class ClockLoadingView extends View {
         mPaint.setColor(mViewColor);
         mPaint.setStyle(Paint.Style.STROKE);
         mPaint.setStrokeCap(Paint.Cap.ROUND);
+        mPaint.setStrokeWidth(mBgThickWidth);
+
+        mHourHandPaint = new Paint(mPaint);
+        mHourHandPaint.setStrokeWidth(mHourHandHeight);
+        mMinuteHandPaint = new Paint(mPaint);
+        mMinuteHandPaint.setStrokeWidth(mMinuteHandWidth);
 
         valueAnimator = ValueAnimator.ofFloat(0, 1f);
         valueAnimator.setRepeatCount(ValueAnimator.INFINITE);
@@ -149,6 +165,32 @@ public class ClockLoadingView extends View {
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         stopAnimation();
+        releaseBgCache();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mCenterX = w >> 1;
+        mCenterY = h >> 1;
+        releaseBgCache();
+    }
+
+    private void releaseBgCache() {
+        if (mBgCache != null) {
+            mBgCache.recycle();
+            mBgCache = null;
+        }
+    }
+
+    private void ensureBgCache() {
+        if (mBgCache != null) {
+            return;
+        }
+        mBgCache = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+        mBgCache.eraseColor(Color.TRANSPARENT);
+        Canvas canvas = new Canvas(mBgCache);
+        canvas.drawCircle(mCenterX, mCenterY, mBgRadius - mBgThickWidth / 2, mPaint);
     }
 
     @Override
@@ -167,26 +209,23 @@ public class ClockLoadingView extends View {
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        int width = canvas.getWidth();
-        int height = canvas.getHeight();
-        int halfWidth = width >> 1;
-        int halfHeight = height >> 1;
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        final float halfWidth = mCenterX;
+        final float halfHeight = mCenterY;
 
-        mPaint.setStrokeWidth(mBgThickWidth);
-        canvas.drawCircle(halfWidth, halfHeight, mBgRadius - mBgThickWidth / 2, mPaint);
-        canvas.save();
+        ensureBgCache();
+        canvas.drawBitmap(mBgCache, 0, 0, null);
 
-        mPaint.setStrokeWidth(mHourHandHeight);
+        // Hands only need a rotation per frame.
+        int saveCount = canvas.save();
         canvas.rotate(animatedValue * 360, halfWidth, halfHeight);
         canvas.drawLine(halfWidth, halfHeight, halfWidth + mHourHandWidth - mHourHandHeight / 2,
-                halfHeight, mPaint);
-        canvas.restore();
-
-        canvas.save();
-        mPaint.setStrokeWidth(mMinuteHandWidth);
-        canvas.rotate(animatedValue * 4 * 360, halfWidth, halfHeight);
+                halfHeight, mHourHandPaint);
+        canvas.rotate(animatedValue * 3 * 360, halfWidth, halfHeight);
         canvas.drawLine(halfWidth, halfHeight, halfWidth,
-                halfHeight - mMinuteHandHeight - mMinuteHandWidth / 2, mPaint);
-        canvas.restore();
+                halfHeight - mMinuteHandHeight - mMinuteHandWidth / 2, mMinuteHandPaint);
+        canvas.restoreToCount(saveCount);
     }
 }
\ No newline at end of file
@@ -82,9 +82,12 @@ final class CollapsingTextHelper {
     private CharSequence mTextToDraw;
     private boolean mIsRtl;
 
+    private boolean mScalingTextureEnabled = USE_SCALING_TEXTURE;
     private boolean mUseTexture;
+    // The texture bitmap is kept and reused as long as the title fits in it.
     private Bitmap mExpandedTitleTexture;
-    private Paint mTexturePaint;
+    private boolean mExpandedTitleTextureValid;
+    private final Paint mTexturePaint;
     private float mTextureAscent;
     private float mTextureDescent;
 
@@ -109,12 +112,32 @@ final class CollapsingTextHelper {
 
         mTextPaint = new TextPaint();
         mTextPaint.setAntiAlias(true);
+        mTexturePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
 
         mCollapsedBounds = new Rect();
         mExpandedBounds = new Rect();
         mCurrentBounds = new RectF();
     }
 
+    /**
+     * Set whether the expanded title should be drawn as a scaled texture while collapsing.
+     * Defaults to true only on platforms that can not scale text on hardware accelerated
+     * canvas, otherwise the text is scaled and drawn directly.
+     */
+    void setScalingTextureEnabled(boolean enabled) {
+        if (mScalingTextureEnabled != enabled) {
+            mScalingTextureEnabled = enabled;
+            if (!enabled) {
+                releaseTexture();
+            }
+            recalculate();
+        }
+    }
+
+    boolean isScalingTextureEnabled() {
+        return mScalingTextureEnabled;
+    }
+
     void setTextSizeInterpolator(Interpolator interpolator) {
         mTextSizeInterpolator = interpolator;
         recalculate();
@@ -434,7 +457,7 @@ final class CollapsingTextHelper {
             float x = mCurrentDrawX;
             float y = mCurrentDrawY;
 
-            final boolean drawTexture = mUseTexture && mExpandedTitleTexture != null;
+            final boolean drawTexture = mUseTexture && mExpandedTitleTextureValid;
 
             final float ascent;
             final float descent;
@@ -487,7 +510,7 @@ final class CollapsingTextHelper {
         calculateUsingTextSize(textSize);
 
         // Use our texture if the scale isn't 1.0
-        mUseTexture = USE_SCALING_TEXTURE && mScale != 1f;
+        mUseTexture = mScalingTextureEnabled && mScale != 1f;
 
         if (mUseTexture) {
             // Make sure we have an expanded texture if needed
@@ -550,7 +573,7 @@ final class CollapsingTextHelper {
     }
 
     private void ensureExpandedTexture() {
-        if (mExpandedTitleTexture != null || mExpandedBounds.isEmpty()
+        if (mExpandedTitleTextureValid || mExpandedBounds.isEmpty()
                 || TextUtils.isEmpty(mTextToDraw)) {
             return;
         }
@@ -562,19 +585,28 @@ final class CollapsingTextHelper {
         final int w = Math.round(mTextPaint.measureText(mTextToDraw, 0, mTextToDraw.length()));
         final int h = Math.round(mTextureDescent - mTextureAscent);
 
-        if (w <= 0 && h <= 0) {
+        if (w <= 0 || h <= 0) {
             return; // If the width or height are 0, return
         }
 
-        mExpandedTitleTexture = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+        if (mExpandedTitleTexture == null
+                || mExpandedTitleTexture.getWidth() < w || mExpandedTitleTexture.getHeight() < h) {
+            // Grow the texture, keeping the larger side so the next title is likely to fit.
+            final int textureWidth = mExpandedTitleTexture == null
+                    ? w : Math.max(w, mExpandedTitleTexture.getWidth());
+            final int textureHeight = mExpandedTitleTexture == null
+                    ? h : Math.max(h, mExpandedTitleTexture.getHeight());
+            releaseTexture();
+            mExpandedTitleTexture = Bitmap.createBitmap(textureWidth, textureHeight,
+                    Bitmap.Config.ARGB_8888);
+        } else {
+            mExpandedTitleTexture.eraseColor(Color.TRANSPARENT);
+        }
 
+        // Text is aligned to the top of texture, the spare space is left transparent.
         Canvas c = new Canvas(mExpandedTitleTexture);
-        c.drawText(mTextToDraw, 0, mTextToDraw.length(), 0, h - mTextPaint.descent(), mTextPaint);
-
-        if (mTexturePaint == null) {
-            // Make sure we have a paint
-            mTexturePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
-        }
+        c.drawText(mTextToDraw, 0, mTextToDraw.length(), 0, -mTextureAscent, mTextPaint);
+        mExpandedTitleTextureValid = true;
     }
 
     public void recalculate() {
@@ -605,6 +637,12 @@ final class CollapsingTextHelper {
     }
 
     private void clearTexture() {
+        // Keep the bitmap for reuse, it will be redrawn when needed.
+        mExpandedTitleTextureValid = false;
+    }
+
+    private void releaseTexture() {
+        mExpandedTitleTextureValid = false;
         if (mExpandedTitleTexture != null) {
             mExpandedTitleTexture.recycle();
             mExpandedTitleTexture = null;
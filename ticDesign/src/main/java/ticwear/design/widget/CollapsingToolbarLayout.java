@@ -89,6 +89,7 @@ import ticwear.design.R;
  * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_expandedTitleMarginBottom
  * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_statusBarScrim
  * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_toolbarId
+ * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_titleScalingTexture
  */
 public class CollapsingToolbarLayout extends FrameLayout {
 
@@ -168,6 +169,10 @@ public class CollapsingToolbarLayout extends FrameLayout {
 
         mCollapsingTitleEnabled = a.getBoolean(
                 R.styleable.CollapsingToolbarLayout_tic_titleEnabled, true);
+        if (a.hasValue(R.styleable.CollapsingToolbarLayout_tic_titleScalingTexture)) {
+            mCollapsingTextHelper.setScalingTextureEnabled(a.getBoolean(
+                    R.styleable.CollapsingToolbarLayout_tic_titleScalingTexture, false));
+        }
         setTitle(a.getText(R.styleable.CollapsingToolbarLayout_android_title));
 
         // First load the default text appearances
@@ -469,6 +474,31 @@ public class CollapsingToolbarLayout extends FrameLayout {
         return mCollapsingTitleEnabled;
     }
 
+    /**
+     * Sets whether the title is drawn as a scaled bitmap of the expanded title while it
+     * shrinks and grows, instead of drawing the text at each size. Drawing a bitmap is cheaper
+     * for long titles that change size often, at the cost of keeping a bitmap of the title.
+     * Defaults to false on platforms that can scale text on hardware accelerated canvas.
+     *
+     * @see #isTitleScalingTextureEnabled()
+     *
+     * @attr ref R.styleable#CollapsingToolbarLayout_titleScalingTexture
+     */
+    public void setTitleScalingTextureEnabled(boolean enabled) {
+        mCollapsingTextHelper.setScalingTextureEnabled(enabled);
+    }
+
+    /**
+     * Returns whether the title is drawn as a scaled bitmap of the expanded title.
+     *
+     * @see #setTitleScalingTextureEnabled(boolean)
+     *
+     * @attr ref R.styleable#CollapsingToolbarLayout_titleScalingTexture
+     */
+    public boolean isTitleScalingTextureEnabled() {
+        return mCollapsingTextHelper.isScalingTextureEnabled();
+    }
+
     /**
      * Set whether the content scrim and/or status bar scrim should be shown or not. Any change
      * in the vertical scroll may overwrite this value. Any visibility change will be animated if
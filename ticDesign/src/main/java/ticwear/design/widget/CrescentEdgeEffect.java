@@ -19,6 +19,7 @@ package ticwear.design.widget;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffXfermode;
@@ -47,11 +48,15 @@ public class CrescentEdgeEffect extends EdgeEffect {
     private static final float CRESCENT_EDGE_MIDDLE_STOP = 1 - ((1 - CRESCENT_EDGE_STOP) * 0.2f);
 
     private final Paint mPaint = new Paint();
+    private final Matrix mShaderMatrix = new Matrix();
 
     private float mGlowCenterX;
     private float mGlowCenterY;
     private float mGlowRadius;
 
+    /** The glow shader for current size and color, null if need rebuild. */
+    private RadialGradient mGlowShader;
+
     public CrescentEdgeEffect(Context context) {
         super(context);
         mPaint.setColor(Color.TRANSPARENT);
@@ -77,7 +82,7 @@ public class CrescentEdgeEffect extends EdgeEffect {
         mGlowCenterX = bounds.width() * 0.5f;
         mGlowCenterY = mGlowRadius;
 
-        updatePaint();
+        mGlowShader = null;
     }
 
     @Override
@@ -86,21 +91,24 @@ public class CrescentEdgeEffect extends EdgeEffect {
             return;
         }
         super.setColor(color);
-        updatePaint();
+        mGlowShader = null;
     }
 
     private void updatePaint() {
         int deepColor = (getColor() & 0xffffff) | 0xff000000;
         int middleColor = (getColor() & 0xffffff) | 0x7f000000;
+        // Fade out over the last pixel, so the clamped area outside the circle is
+        // transparent, and the gradient can fill the bounds instead of a circle.
+        float deepStop = Math.max(CRESCENT_EDGE_MIDDLE_STOP, 1f - 1f / mGlowRadius);
 
-        RadialGradient radialGradient = new RadialGradient(
+        mGlowShader = new RadialGradient(
                 mGlowCenterX, mGlowCenterY, mGlowRadius,
-                new int[] {0, 0, middleColor, deepColor},
-                new float[] {0, CRESCENT_EDGE_STOP, CRESCENT_EDGE_MIDDLE_STOP, 1f},
+                new int[] {0, 0, middleColor, deepColor, 0},
+                new float[] {0, CRESCENT_EDGE_STOP, CRESCENT_EDGE_MIDDLE_STOP, deepStop, 1f},
                 Shader.TileMode.CLAMP
         );
 
-        mPaint.setShader(radialGradient);
+        mPaint.setShader(mGlowShader);
     }
 
     @Override
@@ -114,12 +122,17 @@ public class CrescentEdgeEffect extends EdgeEffect {
         float translateX = bounds.width() * displacement / 2;
         float translateY = - edgeHeight * (1 - scaleY);
 
-        final int count = canvas.save();
+        if (mGlowShader == null) {
+            if (mGlowRadius <= 0) {
+                return;
+            }
+            updatePaint();
+        }
 
-        canvas.clipRect(bounds);
-        canvas.translate(translateX, translateY);
+        // Move the glow by the shader matrix, and let the bounds clip it.
+        mShaderMatrix.setTranslate(translateX, translateY);
+        mGlowShader.setLocalMatrix(mShaderMatrix);
         mPaint.setAlpha((int) (0xff * getGlowAlpha()));
-        canvas.drawCircle(mGlowCenterX, mGlowCenterY, mGlowRadius, mPaint);
-        canvas.restoreToCount(count);
+        canvas.drawRect(bounds, mPaint);
     }
 }
@@ -34,6 +34,9 @@ package ticwear.design.widget;/*
 import android.content.Context;
 import android.database.Cursor;
 import android.database.DataSetObserver;
+import android.os.AsyncTask;
+import android.support.annotation.NonNull;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 
 /**
@@ -44,6 +47,13 @@ import android.support.v7.widget.RecyclerView;
 
 public abstract class CursorRecyclerViewAdapter<VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
 
+    /**
+     * Returned by {@link #getContentHash(Cursor)} when content of row is unknown.
+     */
+    public static final long NO_CONTENT_HASH = Long.MIN_VALUE;
+
+    private static final int DEFAULT_PREFETCH_WINDOW = 32;
+
     private Context mContext;
 
     private Cursor mCursor;
@@ -54,6 +64,22 @@ public abstract class CursorRecyclerViewAdapter<VH extends RecyclerView.ViewHold
 
     private DataSetObserver mDataSetObserver;
 
+    private boolean mDiffEnabled;
+
+    // Ids and content hashes of current cursor, only kept when diff is enabled.
+    private Snapshot mSnapshot;
+
+    private DiffTask mDiffTask;
+
+    private String[] mPrefetchColumns;
+
+    private PrefetchWindow mPrefetchWindow;
+
+    // Cursor read by another thread, not touched here until released.
+    private Cursor mHeldCursor;
+
+    private boolean mCloseHeldCursor;
+
     public CursorRecyclerViewAdapter(Context context, Cursor cursor) {
         mContext = context;
         mCursor = cursor;
@@ -75,7 +101,7 @@ public abstract class CursorRecyclerViewAdapter<VH extends RecyclerView.ViewHold
 
     @Override
     public int getItemCount() {
-        if (mDataValid && mCursor != null) {
+        if (mDataValid && mCursor != null && mHeldCursor == null) {
             return mCursor.getCount();
         }
         return 0;
@@ -83,7 +109,16 @@ public abstract class CursorRecyclerViewAdapter<VH extends RecyclerView.ViewHold
 
     @Override
     public long getItemId(int position) {
-        if (mDataValid && mCursor != null && mCursor.moveToPosition(position)) {
+        if (!mDataValid || mCursor == null || mHeldCursor != null) {
+            return 0;
+        }
+        if (mSnapshot != null && position >= 0 && position < mSnapshot.ids.length) {
+            return mSnapshot.ids[position];
+        }
+        if (mPrefetchWindow != null && mPrefetchWindow.contains(position)) {
+            return mPrefetchWindow.getId(position);
+        }
+        if (mCursor.moveToPosition(position)) {
             return mCursor.getLong(mRowIdColumn);
         }
         return 0;
@@ -96,26 +131,150 @@ public abstract class CursorRecyclerViewAdapter<VH extends RecyclerView.ViewHold
 
     public abstract void onBindViewHolder(VH viewHolder, Cursor cursor);
 
+    /**
+     * Bind view holder with prefetched row, called instead of
+     * {@link #onBindViewHolder(RecyclerView.ViewHolder, Cursor)} when prefetch is enabled
+     * by {@link #setPrefetchColumns(int, String...)}.
+     * <p/>
+     * The row is reused and only valid during this call. The default implementation
+     * moves the cursor and binds with it.
+     */
+    public void onBindViewHolder(VH viewHolder, PrefetchedRow row) {
+        if (!mCursor.moveToPosition(row.getPosition())) {
+            throw new IllegalStateException("couldn't move cursor to position " + row.getPosition());
+        }
+        onBindViewHolder(viewHolder, mCursor);
+    }
+
     @Override
     public void onBindViewHolder(VH viewHolder, int position) {
-        if (!mDataValid) {
+        if (!mDataValid || mHeldCursor != null) {
             throw new IllegalStateException("this should only be called when the cursor is valid");
         }
+        if (mPrefetchWindow != null) {
+            onBindViewHolder(viewHolder, mPrefetchWindow.obtainRow(mCursor, mRowIdColumn, position));
+            return;
+        }
         if (!mCursor.moveToPosition(position)) {
             throw new IllegalStateException("couldn't move cursor to position " + position);
         }
         onBindViewHolder(viewHolder, mCursor);
     }
 
+    /**
+     * Enable stable-id based diff on cursor changes. When enabled, the adapter dispatches
+     * granular notifications instead of {@link #notifyDataSetChanged()}, and
+     * {@link #changeCursor(Cursor)} computes the diff in background.
+     * <p/>
+     * Override {@link #getContentHash(Cursor)} so unchanged rows are not rebound.
+     */
+    public void setDiffEnabled(boolean enabled) {
+        if (mDiffEnabled == enabled) {
+            return;
+        }
+        mDiffEnabled = enabled;
+        if (enabled) {
+            // A held cursor is read on release.
+            mSnapshot = mDataValid && mCursor != null && mHeldCursor == null ?
+                    readSnapshot(mCursor, mRowIdColumn) : null;
+        } else {
+            mSnapshot = null;
+            if (mDiffTask != null) {
+                // Keep the task as pending, so the cursor given to changeCursor is swapped
+                // in without diff once the task stops reading it.
+                mDiffTask.cancel(false);
+            }
+        }
+    }
+
+    public boolean isDiffEnabled() {
+        return mDiffEnabled;
+    }
+
+    /**
+     * Get a hash of contents of the row the cursor is pointing to. Rows with the same id and
+     * content hash are treated unchanged in diff, and will not be rebound.
+     * <p/>
+     * May be called on a background thread, with a cursor not yet swapped in.
+     *
+     * @return hash of the row, or {@link #NO_CONTENT_HASH} if it's unknown.
+     */
+    protected long getContentHash(Cursor cursor) {
+        return NO_CONTENT_HASH;
+    }
+
+    /**
+     * Copy given columns of rows around the binding position into a buffer, so binding
+     * reads from {@link #onBindViewHolder(RecyclerView.ViewHolder, PrefetchedRow)} and does
+     * not touch the cursor for each bind.
+     *
+     * @param windowSize Rows to copy at a time, covering the visible range and lookahead.
+     *                   Uses a default size if not positive.
+     * @param columns Names of columns to prefetch, or null to disable prefetch.
+     */
+    public void setPrefetchColumns(int windowSize, String... columns) {
+        if (columns == null || columns.length == 0) {
+            mPrefetchColumns = null;
+            mPrefetchWindow = null;
+            return;
+        }
+        mPrefetchColumns = columns;
+        mPrefetchWindow = new PrefetchWindow(
+                windowSize > 0 ? windowSize : DEFAULT_PREFETCH_WINDOW, columns.length);
+        if (mDataValid && mCursor != null) {
+            mPrefetchWindow.setColumns(mCursor, columns);
+        }
+    }
+
+    /**
+     * Hold current cursor for a reader on another thread, e.g. a one-pass scan in
+     * background. Until {@link #releaseCursor()}, the adapter reports no items and does not
+     * read the cursor on its changes, and closing it by {@link #changeCursor(Cursor)} is
+     * delayed to the release.
+     */
+    public void holdCursor() {
+        if (mHeldCursor == null) {
+            mHeldCursor = mCursor;
+        }
+    }
+
+    /**
+     * Release the cursor held by {@link #holdCursor()}, and notify a full change, since no
+     * items are reported during the hold.
+     */
+    public void releaseCursor() {
+        final Cursor heldCursor = mHeldCursor;
+        if (heldCursor == null) {
+            return;
+        }
+        mHeldCursor = null;
+        if (mCloseHeldCursor) {
+            mCloseHeldCursor = false;
+            heldCursor.close();
+        }
+        invalidatePrefetch();
+        if (mDiffEnabled) {
+            mSnapshot = mDataValid && mCursor != null ? readSnapshot(mCursor, mRowIdColumn) : null;
+        }
+        onCursorChanged();
+    }
+
     /**
      * Change the underlying cursor to a new cursor. If there is an existing cursor it will be
      * closed.
+     * <p/>
+     * If diff is enabled, the new cursor is read and diffed in background, and swapped in
+     * with granular notifications when done. The old cursor is closed after that.
      */
     public void changeCursor(Cursor cursor) {
-        Cursor old = swapCursor(cursor);
-        if (old != null) {
-            old.close();
+        if (mDiffEnabled && mSnapshot != null && mHeldCursor == null &&
+                cursor != null && cursor != mCursor) {
+            cancelDiff();
+            mDiffTask = new DiffTask(mSnapshot, cursor);
+            mDiffTask.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+            return;
         }
+        closeCursor(swapCursor(cursor));
     }
 
     /**
@@ -124,49 +283,383 @@ public abstract class CursorRecyclerViewAdapter<VH extends RecyclerView.ViewHold
      * closed.
      */
     public Cursor swapCursor(Cursor newCursor) {
+        cancelDiff();
         if (newCursor == mCursor) {
             return null;
         }
+        final Snapshot oldSnapshot = mSnapshot;
+        final Snapshot newSnapshot = mDiffEnabled && newCursor != null ?
+                readSnapshot(newCursor, newCursor.getColumnIndexOrThrow("_id")) : null;
+        final Cursor oldCursor = applyCursor(newCursor, newSnapshot);
+        if (oldSnapshot != null && newSnapshot != null && mHeldCursor == null) {
+            onCursorChanged(calculateDiff(oldSnapshot, newSnapshot, false));
+        } else {
+            onCursorChanged();
+            //There is no notifyDataSetInvalidated() method in RecyclerView.Adapter
+        }
+        return oldCursor;
+    }
+
+    private Cursor applyCursor(Cursor newCursor, Snapshot snapshot) {
         final Cursor oldCursor = mCursor;
         if (oldCursor != null && mDataSetObserver != null) {
             oldCursor.unregisterDataSetObserver(mDataSetObserver);
         }
         mCursor = newCursor;
+        mSnapshot = snapshot;
         if (mCursor != null) {
             if (mDataSetObserver != null) {
                 mCursor.registerDataSetObserver(mDataSetObserver);
             }
             mRowIdColumn = newCursor.getColumnIndexOrThrow("_id");
             mDataValid = true;
-            onCursorChanged();
+            if (mPrefetchWindow != null) {
+                mPrefetchWindow.setColumns(newCursor, mPrefetchColumns);
+            }
         } else {
             mRowIdColumn = -1;
             mDataValid = false;
-            onCursorChanged();
-            //There is no notifyDataSetInvalidated() method in RecyclerView.Adapter
+            invalidatePrefetch();
         }
         return oldCursor;
     }
 
+    private void closeCursor(Cursor cursor) {
+        if (cursor == null) {
+            return;
+        }
+        if (cursor == mHeldCursor) {
+            // Still read by the holder.
+            mCloseHeldCursor = true;
+        } else {
+            cursor.close();
+        }
+    }
+
+    private void invalidatePrefetch() {
+        if (mPrefetchWindow != null) {
+            mPrefetchWindow.invalidate();
+        }
+    }
+
+    private void cancelDiff() {
+        if (mDiffTask != null) {
+            // The pending cursor will be closed by the task once it stops reading.
+            mDiffTask.cancel(false);
+            mDiffTask = null;
+        }
+    }
+
     // Give sub-class a chance to hack the data set change notify.
     public void onCursorChanged() {
         notifyDataSetChanged();
     }
 
+    /**
+     * Called instead of {@link #onCursorChanged()} when diff is enabled.
+     * Give sub-class a chance to offset the updates, e.g. for headers.
+     */
+    public void onCursorChanged(DiffUtil.DiffResult diff) {
+        diff.dispatchUpdatesTo(this);
+    }
+
+    private Snapshot readSnapshot(Cursor cursor, int idColumn) {
+        final int count = cursor.getCount();
+        final long[] ids = new long[count];
+        final long[] hashes = new long[count];
+        for (int i = 0; i < count && cursor.moveToPosition(i); i++) {
+            ids[i] = cursor.getLong(idColumn);
+            hashes[i] = getContentHash(cursor);
+        }
+        return new Snapshot(ids, hashes);
+    }
+
+    private static DiffUtil.DiffResult calculateDiff(final Snapshot oldSnapshot,
+                                                     final Snapshot newSnapshot,
+                                                     boolean detectMoves) {
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldSnapshot.ids.length;
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newSnapshot.ids.length;
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldSnapshot.ids[oldItemPosition] == newSnapshot.ids[newItemPosition];
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                long oldHash = oldSnapshot.hashes[oldItemPosition];
+                return oldHash != NO_CONTENT_HASH &&
+                        oldHash == newSnapshot.hashes[newItemPosition];
+            }
+        }, detectMoves);
+    }
+
     private class NotifyingDataSetObserver extends DataSetObserver {
         @Override
         public void onChanged() {
             super.onChanged();
             mDataValid = true;
-            onCursorChanged();
+            if (mHeldCursor != null) {
+                // Read and notified on release.
+                return;
+            }
+            invalidatePrefetch();
+            if (mDiffEnabled && mSnapshot != null) {
+                // Same cursor changed in place, it's in use here so diff it synchronously.
+                final Snapshot oldSnapshot = mSnapshot;
+                mSnapshot = readSnapshot(mCursor, mRowIdColumn);
+                onCursorChanged(calculateDiff(oldSnapshot, mSnapshot, false));
+            } else {
+                onCursorChanged();
+            }
         }
 
         @Override
         public void onInvalidated() {
             super.onInvalidated();
             mDataValid = false;
+            mSnapshot = null;
+            invalidatePrefetch();
             onCursorChanged();
             //There is no notifyDataSetInvalidated() method in RecyclerView.Adapter
         }
     }
+
+    private static class Snapshot {
+        final long[] ids;
+        final long[] hashes;
+
+        Snapshot(long[] ids, long[] hashes) {
+            this.ids = ids;
+            this.hashes = hashes;
+        }
+    }
+
+    private class DiffTask extends AsyncTask<Void, Void, DiffUtil.DiffResult> {
+
+        private final Snapshot mOldSnapshot;
+        private final Cursor mNewCursor;
+        private Snapshot mNewSnapshot;
+
+        DiffTask(Snapshot oldSnapshot, Cursor newCursor) {
+            mOldSnapshot = oldSnapshot;
+            mNewCursor = newCursor;
+        }
+
+        @Override
+        protected DiffUtil.DiffResult doInBackground(Void... params) {
+            // The new cursor is not used by anyone else until swapped in.
+            mNewSnapshot = readSnapshot(mNewCursor, mNewCursor.getColumnIndexOrThrow("_id"));
+            if (isCancelled()) {
+                return null;
+            }
+            return calculateDiff(mOldSnapshot, mNewSnapshot, true);
+        }
+
+        @Override
+        protected void onPostExecute(DiffUtil.DiffResult diff) {
+            if (mDiffTask != this) {
+                return;
+            }
+            mDiffTask = null;
+            // The current cursor may be changed or invalidated in place while diffing,
+            // then the diff is stale and must be based on the current snapshot instead.
+            final Snapshot currentSnapshot = mSnapshot;
+            final Cursor oldCursor = applyCursor(mNewCursor, mNewSnapshot);
+            if (currentSnapshot == null || mHeldCursor != null) {
+                // No items were reported, so there is nothing to diff against.
+                onCursorChanged();
+            } else if (currentSnapshot == mOldSnapshot) {
+                onCursorChanged(diff);
+            } else {
+                onCursorChanged(calculateDiff(currentSnapshot, mNewSnapshot, false));
+            }
+            closeCursor(oldCursor);
+        }
+
+        @Override
+        protected void onCancelled(DiffUtil.DiffResult diff) {
+            if (mDiffTask == this) {
+                // Diff is disabled while pending, still apply the change.
+                mDiffTask = null;
+                closeCursor(swapCursor(mNewCursor));
+                return;
+            }
+            // The cursor is owned by us since changeCursor.
+            mNewCursor.close();
+        }
+    }
+
+    /**
+     * A row copied from cursor by prefetch. Column indices are the indices of
+     * columns given to {@link #setPrefetchColumns(int, String...)}.
+     */
+    public static final class PrefetchedRow {
+
+        private final PrefetchWindow mWindow;
+        private int mIndex;
+
+        PrefetchedRow(PrefetchWindow window) {
+            mWindow = window;
+        }
+
+        public int getPosition() {
+            return mWindow.mStart + mIndex;
+        }
+
+        public long getId() {
+            return mWindow.mIds[mIndex];
+        }
+
+        public boolean isNull(int column) {
+            return mWindow.mTypes[column][mIndex] == Cursor.FIELD_TYPE_NULL;
+        }
+
+        public long getLong(int column) {
+            switch (mWindow.mTypes[column][mIndex]) {
+                case Cursor.FIELD_TYPE_INTEGER:
+                    return mWindow.mLongs[column][mIndex];
+                case Cursor.FIELD_TYPE_FLOAT:
+                    return (long) mWindow.mDoubles[column][mIndex];
+                case Cursor.FIELD_TYPE_STRING:
+                    return Long.parseLong(mWindow.mStrings[column][mIndex]);
+                default:
+                    return 0;
+            }
+        }
+
+        public int getInt(int column) {
+            return (int) getLong(column);
+        }
+
+        public double getDouble(int column) {
+            switch (mWindow.mTypes[column][mIndex]) {
+                case Cursor.FIELD_TYPE_INTEGER:
+                    return mWindow.mLongs[column][mIndex];
+                case Cursor.FIELD_TYPE_FLOAT:
+                    return mWindow.mDoubles[column][mIndex];
+                case Cursor.FIELD_TYPE_STRING:
+                    return Double.parseDouble(mWindow.mStrings[column][mIndex]);
+                default:
+                    return 0;
+            }
+        }
+
+        public String getString(int column) {
+            switch (mWindow.mTypes[column][mIndex]) {
+                case Cursor.FIELD_TYPE_INTEGER:
+                    return Long.toString(mWindow.mLongs[column][mIndex]);
+                case Cursor.FIELD_TYPE_FLOAT:
+                    return Double.toString(mWindow.mDoubles[column][mIndex]);
+                case Cursor.FIELD_TYPE_STRING:
+                    return mWindow.mStrings[column][mIndex];
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * Buffer of a range of rows, refilled when binding goes out of it.
+     */
+    static final class PrefetchWindow {
+
+        private final int mCapacity;
+        private final int[] mColumnIndices;
+        private final long[] mIds;
+        private final int[][] mTypes;
+        private final long[][] mLongs;
+        private final double[][] mDoubles;
+        private final String[][] mStrings;
+        private final PrefetchedRow mRow;
+
+        private int mStart;
+        private int mCount;
+
+        PrefetchWindow(int capacity, int columnCount) {
+            mCapacity = capacity;
+            mColumnIndices = new int[columnCount];
+            mIds = new long[capacity];
+            mTypes = new int[columnCount][capacity];
+            mLongs = new long[columnCount][capacity];
+            mDoubles = new double[columnCount][capacity];
+            mStrings = new String[columnCount][capacity];
+            mRow = new PrefetchedRow(this);
+        }
+
+        void setColumns(Cursor cursor, String[] columns) {
+            for (int i = 0; i < columns.length; i++) {
+                mColumnIndices[i] = cursor.getColumnIndexOrThrow(columns[i]);
+            }
+            invalidate();
+        }
+
+        void invalidate() {
+            mCount = 0;
+        }
+
+        boolean contains(int position) {
+            return position >= mStart && position < mStart + mCount;
+        }
+
+        long getId(int position) {
+            return mIds[position - mStart];
+        }
+
+        @NonNull
+        PrefetchedRow obtainRow(Cursor cursor, int idColumn, int position) {
+            if (!contains(position)) {
+                fill(cursor, idColumn, position);
+            }
+            mRow.mIndex = position - mStart;
+            return mRow;
+        }
+
+        private void fill(Cursor cursor, int idColumn, int position) {
+            // Keep a few rows before the position for scrolling back.
+            final int total = cursor.getCount();
+            int start = Math.max(0, Math.min(position - mCapacity / 4, total - mCapacity));
+            int count = Math.min(mCapacity, total - start);
+            if (position < start || position >= start + count ||
+                    !cursor.moveToPosition(start)) {
+                throw new IllegalStateException("couldn't move cursor to position " + position);
+            }
+
+            final int columnCount = mColumnIndices.length;
+            for (int row = 0; row < count; row++, cursor.moveToNext()) {
+                mIds[row] = idColumn >= 0 ? cursor.getLong(idColumn) : 0;
+                for (int c = 0; c < columnCount; c++) {
+                    final int index = mColumnIndices[c];
+                    final int type = cursor.getType(index);
+                    mTypes[c][row] = type;
+                    mStrings[c][row] = null;
+                    switch (type) {
+                        case Cursor.FIELD_TYPE_INTEGER:
+                            mLongs[c][row] = cursor.getLong(index);
+                            break;
+                        case Cursor.FIELD_TYPE_FLOAT:
+                            mDoubles[c][row] = cursor.getDouble(index);
+                            break;
+                        case Cursor.FIELD_TYPE_STRING:
+                            mStrings[c][row] = cursor.getString(index);
+                            break;
+                        default:
+                            // Blobs are not prefetched.
+                            mTypes[c][row] = Cursor.FIELD_TYPE_NULL;
+                            break;
+                    }
+                }
+            }
+            mStart = start;
+            mCount = count;
+        }
+    }
 }
\ No newline at end of file
@@ -71,6 +71,9 @@ abstract public class EdgeEffect {
 
     private static final float EPSILON = 0.001f;
 
+    // Glow alpha below this would be drawn with a paint alpha of 0
+    private static final float MIN_VISIBLE_ALPHA = 1.f / 0xff;
+
     private float mGlowAlpha;
     private float mGlowScaleY;
     private int mGlowColor;
@@ -297,7 +300,9 @@ abstract public class EdgeEffect {
     public boolean draw(Canvas canvas) {
         update();
 
-        onDraw(canvas);
+        if (isGlowVisible()) {
+            onDraw(canvas);
+        }
 
         boolean oneLastFrame = false;
         if (mState == STATE_RECEDE && mGlowScaleY == 0) {
@@ -310,6 +315,14 @@ abstract public class EdgeEffect {
 
     abstract public void onDraw(Canvas canvas);
 
+    /**
+     * Whether the glow of current frame is visible, {@link #onDraw(Canvas)} is skipped
+     * if not. Subclasses drawing with a lower max alpha may raise the threshold.
+     */
+    protected boolean isGlowVisible() {
+        return mGlowAlpha >= MIN_VISIBLE_ALPHA;
+    }
+
     protected Rect getBounds() {
         return mBounds;
     }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Mobvoi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ticwear.design.widget;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+import android.widget.OverScroller;
+
+/**
+ * Drives a fling with an {@link OverScroller} on vsync frame callbacks.
+ * <p/>
+ * Start, update and idle are reported from the scroller state, so there is no need
+ * to poll the scroll position. One driver is reused for all flings of its owner.
+ */
+class FlingDriver implements Choreographer.FrameCallback {
+
+    interface Callback {
+
+        /**
+         * Called when a fling starts running.
+         */
+        void onFlingStart(FlingDriver driver);
+
+        /**
+         * Called on each frame with the current position of the scroller.
+         */
+        void onFlingUpdate(FlingDriver driver, int currX, int currY);
+
+        /**
+         * Called when the scroller is finished or aborted.
+         */
+        void onFlingIdle(FlingDriver driver);
+    }
+
+    private final OverScroller mScroller;
+    private final Callback mCallback;
+
+    private boolean mRunning;
+
+    FlingDriver(Context context, @NonNull Callback callback) {
+        mScroller = new OverScroller(context);
+        mCallback = callback;
+    }
+
+    /**
+     * Start a fling, see {@link OverScroller#fling(int, int, int, int, int, int, int, int, int, int)}.
+     *
+     * @return true if the fling is running.
+     */
+    boolean fling(int startX, int startY, int velocityX, int velocityY,
+                  int minX, int maxX, int minY, int maxY, int overX, int overY) {
+        mScroller.fling(startX, startY, velocityX, velocityY, minX, maxX, minY, maxY, overX, overY);
+        if (!mScroller.computeScrollOffset()) {
+            stop(true);
+            return false;
+        }
+
+        start();
+        return true;
+    }
+
+    /**
+     * Start a spring back, see {@link OverScroller#springBack(int, int, int, int, int, int)}.
+     *
+     * @return true if the spring back is running.
+     */
+    boolean springBack(int startX, int startY, int minX, int maxX, int minY, int maxY) {
+        if (!mScroller.springBack(startX, startY, minX, maxX, minY, maxY)) {
+            stop(true);
+            return false;
+        }
+
+        start();
+        return true;
+    }
+
+    /**
+     * Abort the fling and report idle if it is running.
+     */
+    void abort() {
+        mScroller.abortAnimation();
+        stop(true);
+    }
+
+    /**
+     * Abort the fling without report, when another interaction takes over.
+     */
+    void cancel() {
+        mScroller.abortAnimation();
+        stop(false);
+    }
+
+    boolean isFlinging() {
+        return mRunning;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+
+        if (mScroller.computeScrollOffset()) {
+            // Post first, so the callback can abort this fling.
+            Choreographer.getInstance().postFrameCallback(this);
+            mCallback.onFlingUpdate(this, mScroller.getCurrX(), mScroller.getCurrY());
+        } else {
+            mRunning = false;
+            mCallback.onFlingIdle(this);
+        }
+    }
+
+    private void start() {
+        if (!mRunning) {
+            mRunning = true;
+            Choreographer.getInstance().postFrameCallback(this);
+            mCallback.onFlingStart(this);
+        }
+    }
+
+    private void stop(boolean report) {
+        if (mRunning) {
+            mRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+            if (report) {
+                mCallback.onFlingIdle(this);
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
 import android.animation.StateListAnimator;
+import android.animation.ValueAnimator;
 import android.support.annotation.Nullable;
 import android.support.v4.view.ViewCompat;
 import android.view.View;
@@ -30,6 +31,7 @@ import android.view.animation.Interpolator;
 class FloatingActionButtonAnimator {
 
     static final int SHOW_HIDE_ANIM_DURATION = 200;
+    private static final float MINIMIZE_SCALE = 0.1f;
     final VisibilityAwareImageButton mView;
 
     static final int[] PRESSED_ENABLED_STATE_SET = {android.R.attr.state_pressed,
@@ -45,6 +47,11 @@ class FloatingActionButtonAnimator {
     private int mMinimizeTranslationX = 0;
     private int mMinimizeTranslationY = 0;
 
+    private final Transition mShowTransition;
+    private final Transition mHideTransition;
+    private final Transition mMinimizeTransition;
+    private Transition mRunningTransition;
+
     FloatingActionButtonAnimator(VisibilityAwareImageButton view) {
 
         mView = view;
@@ -54,6 +61,13 @@ class FloatingActionButtonAnimator {
                     android.R.interpolator.fast_out_slow_in);
         }
 
+        mShowTransition = new Transition(AnimState.Showing, 1f, false,
+                ticwear.design.widget.AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR);
+        mHideTransition = new Transition(AnimState.Hiding, 0f, true,
+                ticwear.design.widget.AnimationUtils.FAST_OUT_LINEAR_IN_INTERPOLATOR);
+        mMinimizeTransition = new Transition(AnimState.Minimizing, MINIMIZE_SCALE, true,
+                ticwear.design.widget.AnimationUtils.FAST_OUT_LINEAR_IN_INTERPOLATOR);
+
     }
 
     void setPressedTranslationZ(float translationZ) {
@@ -95,55 +109,25 @@ class FloatingActionButtonAnimator {
         }
 
         if (!ViewCompat.isLaidOut(mView) || mView.isInEditMode()) {
-            mAnimState = AnimState.Idle;
+            cancelTransition();
             // If the view isn't laid out, or we're in the editor, don't run the animation
             mView.internalSetVisibility(View.GONE, fromUser);
             if (listener != null) {
                 listener.onHidden();
             }
         } else {
-            mView.animate().cancel();
-            mView.animate()
-                    .scaleX(0f)
-                    .scaleY(0f)
-                    .translationX(mMinimizeTranslationX)
-                    .translationY(mMinimizeTranslationY)
-                    .setDuration(SHOW_HIDE_ANIM_DURATION)
-                    .setInterpolator(ticwear.design.widget.AnimationUtils.FAST_OUT_LINEAR_IN_INTERPOLATOR)
-                    .setListener(new AnimatorListenerAdapter() {
-                        private boolean mCancelled;
-
-                        @Override
-                        public void onAnimationStart(Animator animation) {
-                            mAnimState = AnimState.Hiding;
-                            mCancelled = false;
-                            mView.internalSetVisibility(View.VISIBLE, fromUser);
-                        }
-
-                        @Override
-                        public void onAnimationCancel(Animator animation) {
-                            mAnimState = AnimState.Idle;
-                            mCancelled = true;
-                        }
-
-                        @Override
-                        public void onAnimationEnd(Animator animation) {
-                            mAnimState = AnimState.Idle;
-                            if (!mCancelled) {
-                                mView.internalSetVisibility(View.GONE, fromUser);
-                                if (listener != null) {
-                                    listener.onHidden();
-                                }
-                            }
-                        }
-                    });
+            mHideTransition.start(listener, fromUser);
         }
     }
 
     void show(@Nullable final InternalVisibilityChangedListener listener, final boolean fromUser) {
+        if (isShowing()) {
+            // Let the running show go on, and notify the latest listener.
+            mShowTransition.setListener(listener, fromUser);
+            return;
+        }
         if (notShown()) {
             if (ViewCompat.isLaidOut(mView) && !mView.isInEditMode()) {
-                mView.animate().cancel();
                 if (mView.getVisibility() != View.VISIBLE) {
                     // If the view isn't visible currently, we'll animate it from a single pixel
                     mView.setScaleY(0f);
@@ -151,31 +135,9 @@ class FloatingActionButtonAnimator {
                     mView.setTranslationX(mMinimizeTranslationX);
                     mView.setTranslationY(mMinimizeTranslationY);
                 }
-                mView.animate()
-                        .scaleX(1f)
-                        .scaleY(1f)
-                        .translationX(0)
-                        .translationY(0)
-                        .setDuration(SHOW_HIDE_ANIM_DURATION)
-                        .setInterpolator(ticwear.design.widget.AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR)
-                        .setListener(new AnimatorListenerAdapter() {
-                            @Override
-                            public void onAnimationStart(Animator animation) {
-                                mAnimState = AnimState.Idle;
-                                mView.internalSetVisibility(View.VISIBLE, fromUser);
-                                mView.setClickable(true);
-                                mView.setImageAlpha(0xFF);
-                            }
-
-                            @Override
-                            public void onAnimationEnd(Animator animation) {
-                                if (listener != null) {
-                                    listener.onShown();
-                                }
-                            }
-                        });
+                mShowTransition.start(listener, fromUser);
             } else {
-                mAnimState = AnimState.Idle;
+                cancelTransition();
                 mView.internalSetVisibility(View.VISIBLE, fromUser);
                 mView.setScaleY(1f);
                 mView.setScaleX(1f);
@@ -203,10 +165,7 @@ class FloatingActionButtonAnimator {
             return;
         }
 
-        float targetScale = 0.1f;
-
         if (ViewCompat.isLaidOut(mView) && !mView.isInEditMode()) {
-            mView.animate().cancel();
             if (mView.getVisibility() != View.VISIBLE) {
                 // If the view isn't visible currently, we'll animate it from a single pixel
                 mView.setScaleY(0f);
@@ -215,35 +174,12 @@ class FloatingActionButtonAnimator {
                 mView.setTranslationY(mMinimizeTranslationY);
                 mView.setImageAlpha(0);
             }
-            mView.animate()
-                    .scaleX(targetScale)
-                    .scaleY(targetScale)
-                    .translationX(mMinimizeTranslationX)
-                    .translationY(mMinimizeTranslationY)
-                    .setDuration(SHOW_HIDE_ANIM_DURATION)
-                    .setInterpolator(ticwear.design.widget.AnimationUtils.FAST_OUT_LINEAR_IN_INTERPOLATOR)
-                    .setListener(new AnimatorListenerAdapter() {
-                        @Override
-                        public void onAnimationStart(Animator animation) {
-                            mAnimState = AnimState.Minimizing;
-                            mView.internalSetVisibility(View.VISIBLE, fromUser);
-                        }
-
-                        @Override
-                        public void onAnimationEnd(Animator animation) {
-                            mAnimState = AnimState.Idle;
-                            mView.setClickable(false);
-                            mView.setImageAlpha(0);
-                            if (listener != null) {
-                                listener.onMinimum();
-                            }
-                        }
-                    });
+            mMinimizeTransition.start(listener, fromUser);
         } else {
-            mAnimState = AnimState.Idle;
+            cancelTransition();
             mView.internalSetVisibility(View.VISIBLE, fromUser);
-            mView.setScaleY(targetScale);
-            mView.setScaleX(targetScale);
+            mView.setScaleY(MINIMIZE_SCALE);
+            mView.setScaleX(MINIMIZE_SCALE);
             mView.setTranslationX(mMinimizeTranslationX);
             mView.setTranslationY(mMinimizeTranslationY);
             mView.setClickable(false);
@@ -254,6 +190,19 @@ class FloatingActionButtonAnimator {
         }
     }
 
+    private void cancelTransition() {
+        final Transition running = mRunningTransition;
+        mRunningTransition = null;
+        mAnimState = AnimState.Idle;
+        if (running != null) {
+            running.cancel();
+        }
+    }
+
+    private boolean isShowing() {
+        return mAnimState == AnimState.Showing;
+    }
+
     private boolean isHiding() {
         return mAnimState == AnimState.Hiding;
     }
@@ -264,10 +213,141 @@ class FloatingActionButtonAnimator {
 
     private enum AnimState {
         Idle,
+        Showing,
         Hiding,
         Minimizing
     }
 
+    /**
+     * One transition of the button, with its animator allocated once.
+     * <p/>
+     * A transition always starts from the current scale and translation of the view,
+     * so when it takes over a running one in the middle, the button turns around where
+     * it is, with the duration shortened to the remaining distance, instead of jumping.
+     */
+    private final class Transition extends AnimatorListenerAdapter
+            implements ValueAnimator.AnimatorUpdateListener {
+
+        private final AnimState mState;
+        private final float mTargetScale;
+        private final boolean mToMinimizeTranslation;
+        private final ValueAnimator mAnimator;
+
+        private float mFromScaleX;
+        private float mFromScaleY;
+        private float mFromTranslationX;
+        private float mFromTranslationY;
+        private float mToTranslationX;
+        private float mToTranslationY;
+
+        private InternalVisibilityChangedListener mListener;
+        private boolean mFromUser;
+        private boolean mCancelled;
+
+        Transition(AnimState state, float targetScale, boolean toMinimizeTranslation,
+                   Interpolator interpolator) {
+            mState = state;
+            mTargetScale = targetScale;
+            mToMinimizeTranslation = toMinimizeTranslation;
+            mAnimator = ValueAnimator.ofFloat(0f, 1f);
+            mAnimator.setInterpolator(interpolator);
+            mAnimator.addUpdateListener(this);
+            mAnimator.addListener(this);
+        }
+
+        void setListener(@Nullable InternalVisibilityChangedListener listener, boolean fromUser) {
+            mListener = listener;
+            mFromUser = fromUser;
+        }
+
+        void start(@Nullable InternalVisibilityChangedListener listener, boolean fromUser) {
+            // Cancel first, the cancelled one resets the state if it is still the running one.
+            if (mRunningTransition != null) {
+                mRunningTransition.cancel();
+            }
+            mRunningTransition = this;
+
+            setListener(listener, fromUser);
+            mFromScaleX = mView.getScaleX();
+            mFromScaleY = mView.getScaleY();
+            mFromTranslationX = mView.getTranslationX();
+            mFromTranslationY = mView.getTranslationY();
+            mToTranslationX = mToMinimizeTranslation ? mMinimizeTranslationX : 0;
+            mToTranslationY = mToMinimizeTranslation ? mMinimizeTranslationY : 0;
+
+            // Scale runs between 0 and 1, the longest way to target takes the full duration.
+            final float fullDistance = Math.max(mTargetScale, 1f - mTargetScale);
+            final float distance = Math.abs(mTargetScale - mFromScaleX);
+            mAnimator.setDuration((long) (SHOW_HIDE_ANIM_DURATION *
+                    Math.min(1f, distance / fullDistance)));
+            mAnimator.start();
+        }
+
+        void cancel() {
+            mAnimator.cancel();
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            mCancelled = false;
+            mAnimState = mState;
+            mView.internalSetVisibility(View.VISIBLE, mFromUser);
+            if (mState == AnimState.Showing) {
+                mView.setClickable(true);
+                mView.setImageAlpha(0xFF);
+            }
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            final float fraction = (float) animation.getAnimatedValue();
+            mView.setScaleX(mFromScaleX + (mTargetScale - mFromScaleX) * fraction);
+            mView.setScaleY(mFromScaleY + (mTargetScale - mFromScaleY) * fraction);
+            mView.setTranslationX(mFromTranslationX + (mToTranslationX - mFromTranslationX) * fraction);
+            mView.setTranslationY(mFromTranslationY + (mToTranslationY - mFromTranslationY) * fraction);
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mCancelled = true;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            final InternalVisibilityChangedListener listener = mListener;
+            mListener = null;
+            if (mRunningTransition == this) {
+                mRunningTransition = null;
+                mAnimState = AnimState.Idle;
+            }
+            if (mCancelled) {
+                // Taken over by another transition.
+                return;
+            }
+
+            switch (mState) {
+                case Showing:
+                    if (listener != null) {
+                        listener.onShown();
+                    }
+                    break;
+                case Hiding:
+                    mView.internalSetVisibility(View.GONE, mFromUser);
+                    if (listener != null) {
+                        listener.onHidden();
+                    }
+                    break;
+                case Minimizing:
+                    mView.setClickable(false);
+                    mView.setImageAlpha(0);
+                    if (listener != null) {
+                        listener.onMinimum();
+                    }
+                    break;
+            }
+        }
+    }
+
     interface InternalVisibilityChangedListener {
         void onShown();
         void onHidden();
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2016 Mobvoi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ticwear.design.widget;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+/**
+ * Recognizes tap and scroll gestures of side panel events in focus state, and presses or
+ * clicks the central item.
+ * <p/>
+ * The gesture is kept as plain values, and the central item is tracked by adapter position,
+ * so no event is copied and no view is searched per event. The press, long press and tap
+ * confirmations are deadlines checked on a single frame callback, which is only posted
+ * when no check is scheduled yet, instead of posting messages on every down event.
+ */
+class FocusGestureRecognizer implements Choreographer.FrameCallback {
+
+    /**
+     * The default show press delay is too quick, so we use our own delay duration.
+     */
+    private static final long SAFE_PRESS_DELAY = 60;
+
+    private static final int DOUBLE_TAP_MIN_TIME = 40;
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    interface Callback {
+
+        /**
+         * @return Adapter position of the central item, or {@link RecyclerView#NO_POSITION}.
+         */
+        int findCentralPosition();
+
+        /**
+         * @return The attached view of given adapter position, or null.
+         */
+        @Nullable
+        View findViewByPosition(int position);
+
+        /**
+         * Called when the gesture scrolls by given distance, like
+         * {@link android.view.GestureDetector.OnGestureListener#onScroll}.
+         */
+        void onScroll(float distanceX, float distanceY);
+    }
+
+    private final Callback mCallback;
+
+    private final int mTouchSlopSquare;
+    private final int mDoubleTapSlopSquare;
+    private final long mLongPressDelay;
+    private final long mDoubleTapTimeout;
+
+    private boolean mStillDown;
+    private boolean mInTapRegion;
+    private boolean mIgnoreGesture;
+    private float mDownX;
+    private float mDownY;
+    private float mLastX;
+    private float mLastY;
+    private long mDownTime;
+
+    private int mTargetPosition = RecyclerView.NO_POSITION;
+    @Nullable
+    private View mPressedView;
+    private boolean mPressConfirmed;
+    private float mHotspotX;
+    private float mHotspotY;
+
+    private boolean mTapPending;
+    private float mTapX;
+    private float mTapY;
+    private long mTapUpTime;
+
+    private long mPressDeadline = NO_DEADLINE;
+    private long mLongPressDeadline = NO_DEADLINE;
+    private long mTapDeadline = NO_DEADLINE;
+    private long mScheduledTime = NO_DEADLINE;
+
+    FocusGestureRecognizer(Context context, @NonNull Callback callback) {
+        mCallback = callback;
+
+        final ViewConfiguration configuration = ViewConfiguration.get(context);
+        final int touchSlop = configuration.getScaledTouchSlop();
+        final int doubleTapSlop = configuration.getScaledDoubleTapSlop();
+        mTouchSlopSquare = touchSlop * touchSlop;
+        mDoubleTapSlopSquare = doubleTapSlop * doubleTapSlop;
+        mLongPressDelay = ViewConfiguration.getTapTimeout() + ViewConfiguration.getLongPressTimeout();
+        mDoubleTapTimeout = ViewConfiguration.getDoubleTapTimeout();
+    }
+
+    void onTouchEvent(MotionEvent ev) {
+        final long eventTime = ev.getEventTime();
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                onDown(ev.getX(), ev.getY(), eventTime);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if (mStillDown && !mIgnoreGesture) {
+                    checkDeadlines(eventTime);
+                    onMove(ev.getX(), ev.getY());
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+                if (mStillDown && !mIgnoreGesture) {
+                    checkDeadlines(eventTime);
+                    onUp(ev.getX(), ev.getY(), eventTime);
+                }
+                mStillDown = false;
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                cancel();
+                break;
+        }
+    }
+
+    /**
+     * Drop current gesture and release the pressed item.
+     */
+    void cancel() {
+        mStillDown = false;
+        mTapPending = false;
+        cancelPress();
+        unschedule();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mScheduledTime = NO_DEADLINE;
+        checkDeadlines(SystemClock.uptimeMillis());
+        schedule();
+    }
+
+    private void onDown(float x, float y, long eventTime) {
+        final boolean doubleTap = mTapPending && isConsideredDoubleTap(x, y, eventTime);
+
+        // A new down always drops the tap of last gesture.
+        mTapPending = false;
+        cancelPress();
+
+        mStillDown = true;
+        mInTapRegion = true;
+        mIgnoreGesture = doubleTap;
+        mDownX = mLastX = x;
+        mDownY = mLastY = y;
+        mDownTime = eventTime;
+
+        if (doubleTap) {
+            // Double tap neither presses nor clicks.
+            return;
+        }
+
+        final int position = mCallback.findCentralPosition();
+        final View child = mCallback.findViewByPosition(position);
+        if (child != null) {
+            mTargetPosition = position;
+            mHotspotX = x - child.getX();
+            mHotspotY = y - child.getY();
+            mPressDeadline = eventTime + SAFE_PRESS_DELAY;
+            mLongPressDeadline = eventTime + mLongPressDelay;
+            schedule();
+        }
+    }
+
+    private void onMove(float x, float y) {
+        if (mInTapRegion) {
+            final float deltaX = x - mDownX;
+            final float deltaY = y - mDownY;
+            if (deltaX * deltaX + deltaY * deltaY <= mTouchSlopSquare) {
+                return;
+            }
+            mInTapRegion = false;
+            cancelPress();
+        }
+
+        final float distanceX = mLastX - x;
+        final float distanceY = mLastY - y;
+        if (distanceX != 0 || distanceY != 0) {
+            mLastX = x;
+            mLastY = y;
+            mCallback.onScroll(distanceX, distanceY);
+        }
+    }
+
+    private void onUp(float x, float y, long eventTime) {
+        if (!mInTapRegion || mTargetPosition == RecyclerView.NO_POSITION) {
+            cancelPress();
+            return;
+        }
+
+        // A press not confirmed before up will never be confirmed.
+        mPressDeadline = NO_DEADLINE;
+        mLongPressDeadline = NO_DEADLINE;
+
+        mTapPending = true;
+        mTapX = x;
+        mTapY = y;
+        mTapUpTime = eventTime;
+        // Confirm the tap once it can not be a double tap.
+        mTapDeadline = Math.max(mDownTime + mDoubleTapTimeout, eventTime);
+        schedule();
+    }
+
+    private boolean isConsideredDoubleTap(float x, float y, long eventTime) {
+        final long deltaTime = eventTime - mTapUpTime;
+        if (deltaTime > mDoubleTapTimeout || deltaTime < DOUBLE_TAP_MIN_TIME) {
+            return false;
+        }
+        final float deltaX = x - mTapX;
+        final float deltaY = y - mTapY;
+        return deltaX * deltaX + deltaY * deltaY < mDoubleTapSlopSquare;
+    }
+
+    private void checkDeadlines(long now) {
+        if (now >= mPressDeadline) {
+            mPressDeadline = NO_DEADLINE;
+            confirmPress();
+        }
+        if (now >= mLongPressDeadline) {
+            // Long press is neither a tap nor a scroll.
+            mIgnoreGesture = true;
+            cancelPress();
+        }
+        if (now >= mTapDeadline) {
+            mTapDeadline = NO_DEADLINE;
+            confirmTap();
+        }
+    }
+
+    private void confirmPress() {
+        final View view = mCallback.findViewByPosition(mTargetPosition);
+        if (view != null) {
+            mPressConfirmed = true;
+            mPressedView = view;
+            view.drawableHotspotChanged(mHotspotX, mHotspotY);
+            view.setPressed(true);
+        }
+    }
+
+    private void confirmTap() {
+        if (mTapPending && mPressConfirmed) {
+            final View view = mCallback.findViewByPosition(mTargetPosition);
+            if (view != null) {
+                view.performClick();
+            }
+        }
+        mTapPending = false;
+        cancelPress();
+    }
+
+    private void cancelPress() {
+        if (mPressedView != null) {
+            mPressedView.setPressed(false);
+            mPressedView = null;
+        }
+        mTargetPosition = RecyclerView.NO_POSITION;
+        mPressConfirmed = false;
+        mPressDeadline = NO_DEADLINE;
+        mLongPressDeadline = NO_DEADLINE;
+        mTapDeadline = NO_DEADLINE;
+    }
+
+    /**
+     * Make sure the nearest deadline is checked, without posting again if an earlier
+     * check is already scheduled.
+     */
+    private void schedule() {
+        final long deadline = Math.min(mPressDeadline, Math.min(mLongPressDeadline, mTapDeadline));
+        if (deadline == NO_DEADLINE || mScheduledTime <= deadline) {
+            return;
+        }
+
+        final Choreographer choreographer = Choreographer.getInstance();
+        if (mScheduledTime != NO_DEADLINE) {
+            choreographer.removeFrameCallback(this);
+        }
+        mScheduledTime = deadline;
+        choreographer.postFrameCallbackDelayed(this,
+                Math.max(0, deadline - SystemClock.uptimeMillis()));
+    }
+
+    private void unschedule() {
+        if (mScheduledTime != NO_DEADLINE) {
+            mScheduledTime = NO_DEADLINE;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+}
@@ -17,9 +17,8 @@
 package ticwear.design.widget;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
-import android.view.GestureDetector;
-import android.view.GestureDetector.SimpleOnGestureListener;
 import android.view.MotionEvent;
 import android.view.View;
 
@@ -31,22 +30,23 @@ import android.view.View;
 class FocusLayoutHelper {
 
     private final TicklableRecyclerView mTicklableRecyclerView;
-    private final RecyclerView.LayoutManager mLayoutManager;
+    private final FocusableLinearLayoutManager mLayoutManager;
 
-    private final GestureDetector mGestureDetector;
+    private final FocusGestureRecognizer mGestureRecognizer;
 
 
-    FocusLayoutHelper(@NonNull TicklableRecyclerView ticklableRecyclerView, @NonNull RecyclerView.LayoutManager layoutManager) {
+    FocusLayoutHelper(@NonNull TicklableRecyclerView ticklableRecyclerView, @NonNull FocusableLinearLayoutManager layoutManager) {
 
         this.mTicklableRecyclerView = ticklableRecyclerView;
         this.mLayoutManager = layoutManager;
 
-        OnGestureListener mOnGestureListener = new OnGestureListener();
-        mGestureDetector = new GestureDetector(ticklableRecyclerView.getContext(), mOnGestureListener);
+        mGestureRecognizer = new FocusGestureRecognizer(ticklableRecyclerView.getContext(),
+                new GestureCallback());
 
     }
 
     public void destroy() {
+        mGestureRecognizer.cancel();
         for (int i = 0; i < getChildCount(); i++) {
             View child = getChildAt(i);
             child.clearFocus();
@@ -55,7 +55,7 @@ class FocusLayoutHelper {
 
     public boolean dispatchTouchSidePanelEvent(MotionEvent ev) {
         mTicklableRecyclerView.onTouchEvent(ev);
-        mGestureDetector.onTouchEvent(ev);
+        mGestureRecognizer.onTouchEvent(ev);
         return true;    // return true to skip event dispatch to children.
     }
 
@@ -138,111 +138,36 @@ class FocusLayoutHelper {
         return mLayoutManager.getChildAt(index);
     }
 
-    private class OnGestureListener extends SimpleOnGestureListener {
-
-        private static final long SAFE_PRESS_DELAY = 60;
-
-        private final Runnable mConfirmPressRunnable = new Runnable() {
-            @Override
-            public void run() {
-                confirmPress();
-            }
-        };
-
-        private boolean mPressConfirmed;
-        private View mTargetView;
-        private float mHotspotX;
-        private float mHotspotY;
+    private class GestureCallback implements FocusGestureRecognizer.Callback {
 
         @Override
-        public boolean onDown(MotionEvent e) {
-            mPressConfirmed = false;
-            if (getChildCount() > 0) {
-                int centerIndex = findCenterViewIndex();
-                View child = getChildAt(centerIndex);
-                mHotspotX = e.getX() - child.getX();
-                mHotspotY = e.getY() - child.getY();
-                mTargetView = child;
-                // The default show press delay is too quick, so we use our own delay duration.
-                mTargetView.postDelayed(mConfirmPressRunnable, SAFE_PRESS_DELAY);
+        public int findCentralPosition() {
+            int position = mLayoutManager.getCentralPosition();
+            if (position == RecyclerView.NO_POSITION ||
+                    mLayoutManager.findViewByPosition(position) == null) {
+                // Not notified yet, just entered focus state or the data changed.
+                position = getChildCount() > 0 ?
+                        mTicklableRecyclerView.getChildAdapterPosition(getChildAt(findCenterViewIndex())) :
+                        RecyclerView.NO_POSITION;
             }
-            return false;
+            return position;
         }
 
+        @Nullable
         @Override
-        public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
-            cancelPressIfNeed();
+        public View findViewByPosition(int position) {
+            return position == RecyclerView.NO_POSITION ?
+                    null : mLayoutManager.findViewByPosition(position);
+        }
 
+        @Override
+        public void onScroll(float distanceX, float distanceY) {
             // By scroll another time, we got a multiplier scroll speed.
             if (mLayoutManager.canScrollVertically()) {
                 int dx = Math.round(distanceX);
                 int dy = Math.round(distanceY);
                 mTicklableRecyclerView.scrollBySkipNestedScroll(dx, dy);
             }
-            return false;
-        }
-
-        @Override
-        public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            cancelPressIfNeed();
-            return false;
-        }
-
-        @Override
-        public boolean onSingleTapUp(MotionEvent e) {
-            stopPressConfirm(mTargetView);
-            return false;
-        }
-
-        @Override
-        public boolean onSingleTapConfirmed(MotionEvent e) {
-            if (mTargetView != null && mPressConfirmed) {
-                mTargetView.performClick();
-            }
-            cancelPressIfNeed();
-            return false;
         }
-
-        @Override
-        public boolean onDoubleTap(MotionEvent e) {
-            cancelPressIfNeed();
-            return false;
-        }
-
-        @Override
-        public void onLongPress(MotionEvent e) {
-            cancelPressIfNeed();
-        }
-
-        private void confirmPress() {
-            if (mTargetView != null) {
-                mPressConfirmed = true;
-                startPressIfPossible(mTargetView, mHotspotX, mHotspotY);
-            }
-        }
-
-        private void startPressIfPossible(View view, float x, float y) {
-            stopPressConfirm(view);
-            if (view != null) {
-                view.drawableHotspotChanged(x, y);
-                view.setPressed(true);
-            }
-        }
-
-        private void cancelPressIfNeed() {
-            stopPressConfirm(mTargetView);
-            if (mTargetView != null) {
-                mTargetView.setPressed(false);
-                mTargetView = null;
-                mPressConfirmed = false;
-            }
-        }
-
-        private void stopPressConfirm(View view) {
-            if (view != null) {
-                view.removeCallbacks(mConfirmPressRunnable);
-            }
-        }
-
     }
 }
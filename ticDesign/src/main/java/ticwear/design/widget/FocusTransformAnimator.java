@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Mobvoi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ticwear.design.widget;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.view.Choreographer;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * Drives the scale and alpha of a focusable list item with a single frame callback.
+ * <p/>
+ * Calling {@link #animateTo(float, float, long)} while running retargets the animation
+ * from the current values, instead of cancel and restart animators, so a holder that
+ * receives progress on every scroll tick keeps exactly one running animation. The current
+ * values are read from the target, so a view changed by others doesn't jump.
+ */
+public class FocusTransformAnimator implements Choreographer.FrameCallback {
+
+    private static final Interpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    /**
+     * Apply the transform values to views.
+     */
+    public interface Target {
+        void onTransform(float scale, float alpha);
+
+        /**
+         * @return Current scale of the views, an animation starts from it.
+         */
+        float getCurrentScale();
+
+        /**
+         * @return Current alpha of the views, an animation starts from it.
+         */
+        float getCurrentAlpha();
+    }
+
+    private final Target mTarget;
+
+    private float mScale = 1.0f;
+    private float mAlpha = 1.0f;
+
+    private float mFromScale;
+    private float mFromAlpha;
+    private float mToScale;
+    private float mToAlpha;
+    private long mStartTime;
+    private long mDuration;
+    private boolean mRunning;
+
+    public FocusTransformAnimator(@NonNull Target target) {
+        mTarget = target;
+    }
+
+    /**
+     * Transform to given scale and alpha. If duration is 0, apply immediately.
+     */
+    public void animateTo(float scale, float alpha, long duration) {
+        if (duration <= 0) {
+            cancel();
+            apply(scale, alpha);
+            return;
+        }
+
+        if (mRunning && mToScale == scale && mToAlpha == alpha) {
+            // Same target, let it go on.
+            return;
+        }
+
+        // Start from the views, they may be changed by others since our last frame.
+        mScale = mTarget.getCurrentScale();
+        mAlpha = mTarget.getCurrentAlpha();
+        mFromScale = mScale;
+        mFromAlpha = mAlpha;
+        mToScale = scale;
+        mToAlpha = alpha;
+        mStartTime = SystemClock.uptimeMillis();
+        mDuration = duration;
+
+        if (!mRunning) {
+            mRunning = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stop the animation at current values.
+     */
+    public void cancel() {
+        if (mRunning) {
+            mRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    public float getScale() {
+        return mScale;
+    }
+
+    public float getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+
+        long frameTime = frameTimeNanos / 1000000;
+        float fraction = mDuration > 0 ? (float) (frameTime - mStartTime) / mDuration : 1f;
+        fraction = Math.max(0f, Math.min(1f, fraction));
+        float value = DEFAULT_INTERPOLATOR.getInterpolation(fraction);
+
+        apply(mFromScale + (mToScale - mFromScale) * value,
+                mFromAlpha + (mToAlpha - mFromAlpha) * value);
+
+        if (fraction < 1f) {
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            mRunning = false;
+        }
+    }
+
+    private void apply(float scale, float alpha) {
+        mScale = scale;
+        mAlpha = alpha;
+        mTarget.onTransform(scale, alpha);
+    }
+}
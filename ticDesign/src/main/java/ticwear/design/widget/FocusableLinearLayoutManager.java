@@ -79,6 +79,7 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
 
     private final Context mContext;
     private final Handler mUiHandler;
+    private final long mActionIdleTimeout;
 
     @Nullable
     private TicklableRecyclerView mTicklableRecyclerView;
@@ -92,6 +93,9 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
 
     private final List<OnCentralPositionChangedListener> mOnCentralPositionChangedListeners;
     private int mPreviousCentral;
+    // Central position for gestures, dropped on data changes unlike mPreviousCentral,
+    // since the item at the position may be another one until next notify.
+    private int mCentralPosition;
 
     /**
      * To make-sure we have focus change when coordinate with {@link AppBarLayout},
@@ -107,9 +111,11 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
 
         mContext = context;
         mUiHandler = new Handler();
+        mActionIdleTimeout = context.getResources().getInteger(R.integer.design_time_action_idle_timeout);
 
         mOnCentralPositionChangedListeners = new ArrayList<>();
         mPreviousCentral = RecyclerView.NO_POSITION;
+        mCentralPosition = RecyclerView.NO_POSITION;
 
         mScrollOffset = INVALID_SCROLL_OFFSET;
 
@@ -302,6 +308,36 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
         }
     }
 
+    @Override
+    public void onAdapterChanged(Adapter oldAdapter, Adapter newAdapter) {
+        super.onAdapterChanged(oldAdapter, newAdapter);
+        mCentralPosition = RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public void onItemsAdded(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsAdded(recyclerView, positionStart, itemCount);
+        mCentralPosition = RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public void onItemsRemoved(RecyclerView recyclerView, int positionStart, int itemCount) {
+        super.onItemsRemoved(recyclerView, positionStart, itemCount);
+        mCentralPosition = RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public void onItemsMoved(RecyclerView recyclerView, int from, int to, int itemCount) {
+        super.onItemsMoved(recyclerView, from, to, itemCount);
+        mCentralPosition = RecyclerView.NO_POSITION;
+    }
+
+    @Override
+    public void onItemsChanged(RecyclerView recyclerView) {
+        super.onItemsChanged(recyclerView);
+        mCentralPosition = RecyclerView.NO_POSITION;
+    }
+
     private void notifyAfterLayoutOnNextMainLoop() {
         mUiHandler.post(new Runnable() {
             @Override
@@ -396,10 +432,9 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
                 break;
             case MotionEvent.ACTION_UP:
             case MotionEvent.ACTION_CANCEL:
-                getHandler().postDelayed(exitFocusStateRunnable,
-                        // after this period of time without focus state action (side panel event),
-                        // we should exit focus state.
-                        mContext.getResources().getInteger(R.integer.design_time_action_idle_timeout));
+                // after this period of time without focus state action (side panel event),
+                // we should exit focus state.
+                getHandler().postDelayed(exitFocusStateRunnable, mActionIdleTimeout);
                 break;
         }
         return mFocusLayoutHelper != null && mFocusLayoutHelper.dispatchTouchSidePanelEvent(ev);
@@ -620,6 +655,15 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
 
             mPreviousCentral = centerPosition;
         }
+        mCentralPosition = centerPosition;
+    }
+
+    /**
+     * @return Adapter position of the central item last notified, or
+     * {@link RecyclerView#NO_POSITION} if not in focus state, or the data changed since.
+     */
+    int getCentralPosition() {
+        return mCentralPosition;
     }
 
     public Handler getHandler() {
@@ -750,6 +794,8 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
         private final long defaultAnimDuration;
         private final Interpolator focusInterpolator;
 
+        private FocusTransformAnimator transformAnimator;
+
         public ViewHolder(View itemView) {
             super(itemView);
             prevFocusState = FOCUS_STATE_INVALID;
@@ -809,19 +855,27 @@ public class FocusableLinearLayoutManager extends LinearLayoutManager
         }
 
         private void transform(float scale, float alpha, long duration) {
-            itemView.animate().cancel();
-            if (duration > 0) {
-                itemView.animate()
-                        .setDuration(duration)
-                        .alpha(alpha)
-                        .scaleX(scale)
-                        .scaleY(scale)
-                        .start();
-            } else {
-                itemView.setScaleX(scale);
-                itemView.setScaleY(scale);
-                itemView.setAlpha(alpha);
+            if (transformAnimator == null) {
+                transformAnimator = new FocusTransformAnimator(new FocusTransformAnimator.Target() {
+                    @Override
+                    public void onTransform(float scale, float alpha) {
+                        itemView.setScaleX(scale);
+                        itemView.setScaleY(scale);
+                        itemView.setAlpha(alpha);
+                    }
+
+                    @Override
+                    public float getCurrentScale() {
+                        return itemView.getScaleX();
+                    }
+
+                    @Override
+                    public float getCurrentAlpha() {
+                        return itemView.getAlpha();
+                    }
+                });
             }
+            transformAnimator.animateTo(scale, alpha, duration);
         }
 
         /**
@@ -20,8 +20,6 @@ package ticwear.design.widget;
 import android.content.Context;
 import android.support.v4.view.MotionEventCompat;
 import android.support.v4.view.VelocityTrackerCompat;
-import android.support.v4.view.ViewCompat;
-import android.support.v4.widget.ScrollerCompat;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
@@ -38,8 +36,9 @@ abstract class HeaderBehavior<V extends View> extends ViewOffsetBehavior<V> {
 
     private static final int INVALID_POINTER = -1;
 
-    private Runnable mFlingRunnable;
-    private ScrollerCompat mScroller;
+    private FlingDriver mFlingDriver;
+    private CoordinatorLayout mFlingParent;
+    private V mFlingLayout;
 
     private boolean mIsBeingDragged;
     private int mActivePointerId = INVALID_POINTER;
@@ -239,27 +238,18 @@ abstract class HeaderBehavior<V extends View> extends ViewOffsetBehavior<V> {
 
     final boolean fling(CoordinatorLayout coordinatorLayout, V layout, int minOffset,
             int maxOffset, float velocityY) {
-        if (mFlingRunnable != null) {
-            layout.removeCallbacks(mFlingRunnable);
-            mFlingRunnable = null;
+        if (mFlingDriver == null) {
+            mFlingDriver = new FlingDriver(layout.getContext(), new FlingCallback());
         }
 
-        if (mScroller == null) {
-            mScroller = ScrollerCompat.create(layout.getContext());
-        }
-
-        mScroller.fling(
+        mFlingParent = coordinatorLayout;
+        mFlingLayout = layout;
+        return mFlingDriver.fling(
                 0, getTopAndBottomOffset(), // curr
                 0, Math.round(velocityY), // velocity.
                 0, 0, // x
-                minOffset, maxOffset); // y
-
-        if (mScroller.computeScrollOffset()) {
-            mFlingRunnable = new FlingRunnable(coordinatorLayout, layout);
-            ViewCompat.postOnAnimation(layout, mFlingRunnable);
-            return true;
-        }
-        return false;
+                minOffset, maxOffset, // y
+                0, 0); // over-scroll
     }
 
     boolean needSnapToZero() {
@@ -294,23 +284,24 @@ abstract class HeaderBehavior<V extends View> extends ViewOffsetBehavior<V> {
         }
     }
 
-    private class FlingRunnable implements Runnable {
-        private final CoordinatorLayout mParent;
-        private final V mLayout;
+    private class FlingCallback implements FlingDriver.Callback {
 
-        FlingRunnable(CoordinatorLayout parent, V layout) {
-            mParent = parent;
-            mLayout = layout;
+        @Override
+        public void onFlingStart(FlingDriver driver) {
         }
 
         @Override
-        public void run() {
-            if (mLayout != null && mScroller != null && mScroller.computeScrollOffset()) {
-                setHeaderTopBottomOffset(mParent, mLayout, mScroller.getCurrY());
-
-                // Post ourselves so that we run on the next animation
-                ViewCompat.postOnAnimation(mLayout, this);
+        public void onFlingUpdate(FlingDriver driver, int currX, int currY) {
+            if (mFlingLayout != null) {
+                setHeaderTopBottomOffset(mFlingParent, mFlingLayout, currY);
             }
         }
+
+        @Override
+        public void onFlingIdle(FlingDriver driver) {
+            // Don't hold the views after fling.
+            mFlingParent = null;
+            mFlingLayout = null;
+        }
     }
 }
@@ -501,6 +501,21 @@ public class NumberPicker extends LinearLayout implements SidePanelEventDispatch
      */
     private final PressedStateHelper mPressedStateHelper;
 
+    /**
+     * Routes side panel events to the picker itself, with moves batched per frame.
+     */
+    private final SidePanelEventRouter mSidePanelEventRouter = new SidePanelEventRouter();
+
+    private final SidePanelEventRouter.Target mSidePanelEventTarget =
+            new SidePanelEventRouter.Target() {
+                @Override
+                public boolean onSidePanelEvent(MotionEvent event) {
+                    // TODO: avoid passing invalid touch event when side panel event system changed.
+                    NumberPicker.super.dispatchTouchEvent(event);
+                    return true;
+                }
+            };
+
     /**
      * The keycode of the last handled DPAD down event.
      */
@@ -705,6 +720,9 @@ public class NumberPicker extends LinearLayout implements SidePanelEventDispatch
 
         mPressedStateHelper = new PressedStateHelper();
 
+        // The picker tracks velocity with history, batch tickle moves per frame.
+        mSidePanelEventRouter.setMoveBatchingEnabled(true);
+
         // By default Linearlayout that we extend is not drawn. This is
         // its draw() method is not called but dispatchDraw() is called
         // directly (see ViewGroup.drawChild()). However, this class uses
@@ -904,15 +922,22 @@ public class NumberPicker extends LinearLayout implements SidePanelEventDispatch
         if (DesignConfig.DEBUG_PICKERS && gainFocus) {
             Log.i(LOG_TAG, "Picker " + this + " focused.");
         }
+        mSidePanelEventRouter.invalidate();
     }
 
     @Override
     public boolean dispatchTouchSidePanelEvent(MotionEvent ev, @NonNull SuperCallback superCallback) {
-        // TODO: avoid passing invalid touch event when side panel event system changed.
-        super.dispatchTouchEvent(ev);
+        mSidePanelEventRouter.route(ev, mSidePanelEventTarget, superCallback);
         return true;
     }
 
+    /**
+     * @return The router of side panel events, for its dispatch counters.
+     */
+    public SidePanelEventRouter getSidePanelEventRouter() {
+        return mSidePanelEventRouter;
+    }
+
     @Override
     public boolean onInterceptTouchEvent(MotionEvent event) {
         if (!mHasSelectorWheel || !isEnabled()) {
@@ -1614,6 +1639,7 @@ public class NumberPicker extends LinearLayout implements SidePanelEventDispatch
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         removeAllCallbacks();
+        mSidePanelEventRouter.reset();
     }
 
     @CallSuper
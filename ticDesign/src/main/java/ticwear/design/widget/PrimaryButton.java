@@ -18,15 +18,14 @@ package ticwear.design.widget;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.content.res.Resources;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.RippleDrawable;
 import android.util.AttributeSet;
-import android.util.TypedValue;
 import android.widget.ImageButton;
 
 import ticwear.design.R;
 import ticwear.design.drawable.ArcDrawable;
+import ticwear.design.utils.ThemeUtils;
 
 /**
  * Primary button is a semi-circle large image button align to button.
@@ -53,10 +52,8 @@ public class PrimaryButton extends ImageButton {
 
     @Override
     public void setBackgroundDrawable(Drawable background) {
-        TypedValue typedValue = new TypedValue();
-        Resources.Theme theme = getContext().getTheme();
-        theme.resolveAttribute(android.R.attr.colorControlHighlight, typedValue, true);
-        ColorStateList rippleColor = ColorStateList.valueOf(typedValue.data);
+        ColorStateList rippleColor = ColorStateList.valueOf(
+                ThemeUtils.colorControlHighlight(getContext(), 0));
 
         Drawable drawable = new ArcDrawable(background);
         RippleDrawable ripple = new RippleDrawable(rippleColor, drawable, drawable);
@@ -28,6 +28,7 @@ public class ProgressBarButton extends ImageView {
     private static int mDefaultImageSize;
 
     private TouchListener mTouchListener;
+    private boolean mTouching;
 
     public ProgressBarButton(Context context) {
         super(context);
@@ -47,6 +48,7 @@ public class ProgressBarButton extends ImageView {
         }
 
         stopLongPressUpdate();
+        cancelTouch();
 
         mTouchListener = touchListener;
     }
@@ -55,9 +57,19 @@ public class ProgressBarButton extends ImageView {
         removeCallbacks(mLongPressUpdateRunnable);
     }
 
+    private void cancelTouch() {
+        if (mTouching) {
+            mTouching = false;
+            if (mTouchListener instanceof CancelableTouchListener) {
+                ((CancelableTouchListener) mTouchListener).onCancel();
+            }
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         stopLongPressUpdate();
+        cancelTouch();
         super.onDetachedFromWindow();
     }
 
@@ -79,12 +91,16 @@ public class ProgressBarButton extends ImageView {
         }
         int action = event.getAction();
         if (action == MotionEvent.ACTION_DOWN) {
+            mTouching = true;
             mTouchListener.onDown();
             postDelayed(mLongPressUpdateRunnable, LONG_PRESS_DELAY);
         } else {
             stopLongPressUpdate();
             if (action == MotionEvent.ACTION_UP) {
+                mTouching = false;
                 mTouchListener.onUp();
+            } else if (action == MotionEvent.ACTION_CANCEL) {
+                cancelTouch();
             }
         }
         return true;
@@ -111,4 +127,16 @@ public class ProgressBarButton extends ImageView {
 
         void onLongPress();
     }
+
+    /**
+     * A {@link TouchListener} that is also told when the touch is canceled.
+     */
+    public interface CancelableTouchListener extends TouchListener {
+
+        /**
+         * Called instead of {@link #onUp()} when the touch is canceled, e.g. intercepted by
+         * parent, or the button is detached.
+         */
+        void onCancel();
+    }
 }
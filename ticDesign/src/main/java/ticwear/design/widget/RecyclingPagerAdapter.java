@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Mobvoi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ticwear.design.widget;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.PagerAdapter;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+
+/**
+ * A {@link PagerAdapter} for pages that share layouts, such as a card stack in
+ * {@link VerticalViewPager}.
+ * <p/>
+ * Destroyed pages are kept in a pool keyed by view type, and handed back to
+ * {@link #getView(int, View, ViewGroup)} as convert view, like a ListAdapter,
+ * so fast paging does not inflate a new page every time.
+ */
+public abstract class RecyclingPagerAdapter extends PagerAdapter {
+
+    private static final int DEFAULT_MAX_RECYCLED_PAGES = 3;
+
+    private final SparseArray<ArrayList<View>> mRecycledPages = new SparseArray<>();
+    private int mMaxRecycledPages = DEFAULT_MAX_RECYCLED_PAGES;
+
+    /**
+     * Get a view that displays the page at the specified position.
+     *
+     * @param position The position of the page.
+     * @param convertView A recycled page of the same view type to reuse, or null.
+     * @param container The containing View in which the page will be shown.
+     * @return The view of the page.
+     */
+    @NonNull
+    public abstract View getView(int position, @Nullable View convertView, ViewGroup container);
+
+    /**
+     * Get the type of view for the page at given position. Only pages of the same
+     * type are reused for each other.
+     *
+     * @param position The position of the page.
+     * @return An integer from 0 to {@link #getViewTypeCount()} - 1.
+     */
+    public int getItemViewType(int position) {
+        return 0;
+    }
+
+    /**
+     * @return Number of view types returned by {@link #getItemViewType(int)}.
+     */
+    public int getViewTypeCount() {
+        return 1;
+    }
+
+    /**
+     * Set how many destroyed pages of each view type are kept for reuse.
+     */
+    public void setMaxRecycledPages(int max) {
+        mMaxRecycledPages = Math.max(0, max);
+        for (int i = 0; i < mRecycledPages.size(); i++) {
+            ArrayList<View> pages = mRecycledPages.valueAt(i);
+            while (pages.size() > mMaxRecycledPages) {
+                pages.remove(pages.size() - 1);
+            }
+        }
+    }
+
+    public int getMaxRecycledPages() {
+        return mMaxRecycledPages;
+    }
+
+    /**
+     * Drop all pages kept for reuse.
+     */
+    public void clearRecycledPages() {
+        mRecycledPages.clear();
+    }
+
+    @Override
+    public Object instantiateItem(ViewGroup container, int position) {
+        final int viewType = getItemViewType(position);
+        final View convertView = obtainRecycledPage(viewType);
+        final View view = getView(position, convertView, container);
+        container.addView(view);
+        return new Page(view, viewType);
+    }
+
+    @Override
+    public void destroyItem(ViewGroup container, int position, Object object) {
+        final Page page = (Page) object;
+        container.removeView(page.view);
+        recyclePage(page);
+    }
+
+    @Override
+    public boolean isViewFromObject(View view, Object object) {
+        return ((Page) object).view == view;
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        if (mRecycledPages.size() > getViewTypeCount()) {
+            mRecycledPages.clear();
+        }
+        super.notifyDataSetChanged();
+    }
+
+    @Nullable
+    private View obtainRecycledPage(int viewType) {
+        ArrayList<View> pages = mRecycledPages.get(viewType);
+        if (pages == null || pages.isEmpty()) {
+            return null;
+        }
+        return pages.remove(pages.size() - 1);
+    }
+
+    private void recyclePage(Page page) {
+        if (mMaxRecycledPages <= 0) {
+            return;
+        }
+        ArrayList<View> pages = mRecycledPages.get(page.viewType);
+        if (pages == null) {
+            pages = new ArrayList<>(mMaxRecycledPages);
+            mRecycledPages.put(page.viewType, pages);
+        }
+        if (pages.size() < mMaxRecycledPages) {
+            pages.add(page.view);
+        }
+    }
+
+    /**
+     * Key object of an instantiated page.
+     */
+    private static class Page {
+        final View view;
+        final int viewType;
+
+        Page(View view, int viewType) {
+            this.view = view;
+            this.viewType = viewType;
+        }
+    }
+}
@@ -21,19 +21,25 @@ import android.support.v7.widget.RecyclerView;
 import android.util.Log;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
+import ticwear.design.DesignConfig;
 import ticwear.design.widget.FocusableLinearLayoutManager.ViewHolder;
 
 /**
  * This class provides a set of standard methods to handle the selection on the items of an Adapter.
+ * <p/>
+ * Selection is kept in a {@link BitSet} indexed by position, so lookups are O(1) and
+ * range operations notify the adapter with coalesced {@link #notifyItemRangeChanged} calls.
  *
  * @author Davide Steduto
  */
 public abstract class SelectableAdapter<VH extends ViewHolder> extends RecyclerView.Adapter<VH> {
 
 	private static final String TAG = SelectableAdapter.class.getSimpleName();
+	private static final String KEY_SELECTION = TAG + ":selection";
 
 	/**
 	 * Default mode for selection
@@ -44,11 +50,11 @@ public abstract class SelectableAdapter<VH extends ViewHolder> extends RecyclerV
 	 */
 	public static final int MODE_MULTI = 2;
 
-	private ArrayList<Integer> selectedItems;
+	private BitSet selectedItems;
 	private int mode;
 
 	public SelectableAdapter() {
-		this.selectedItems = new ArrayList<Integer>();
+		this.selectedItems = new BitSet();
 		this.mode = MODE_SINGLE;
 	}
 
@@ -85,7 +91,7 @@ public abstract class SelectableAdapter<VH extends ViewHolder> extends RecyclerV
 	 * @return true if the item is selected, false otherwise.
 	 */
 	public boolean isSelected(int position) {
-		return selectedItems.contains(Integer.valueOf(position));
+		return position >= 0 && selectedItems.get(position);
 	}
 
 	/**
@@ -131,61 +137,132 @@ public abstract class SelectableAdapter<VH extends ViewHolder> extends RecyclerV
 		if (position < 0) return;
 		if (mode == MODE_SINGLE) clearSelection();
 
-		int index = selectedItems.indexOf(position);
-		if (index != -1) {
-			Log.v(TAG, "toggleSelection removing selection on position " + position);
-			selectedItems.remove(index);
-		} else {
-			Log.v(TAG, "toggleSelection adding selection on position " + position);
-			selectedItems.add(position);
+		selectedItems.flip(position);
+		if (DesignConfig.DEBUG_RECYCLER_VIEW) {
+			Log.v(TAG, "toggleSelection " + (selectedItems.get(position) ? "adding" : "removing") +
+					" selection on position " + position);
 		}
 		if (invalidate) {
-			Log.v(TAG, "toggleSelection notifyItemChanged on position " + position);
 			notifyItemChanged(position);
 		}
-		Log.v(TAG, "toggleSelection current selection " + selectedItems);
+		if (DesignConfig.DEBUG_RECYCLER_VIEW) {
+			Log.v(TAG, "toggleSelection current selection " + selectedItems);
+		}
 	}
 
 	/**
 	 * Convenience method when there is no specific view to skip.
 	 */
 	public void selectAll() {
-		selectAll(-1);
+		selectAll(false, 0);
 	}
 
 	/**
-	 * Add the selection status for all items.<br/>
-	 * The selector container is sequentially filled with All items positions.
-	 * <br/><b>Note:</b> All items are invalidated and rebound one by one!
+	 * Replace the selection with all items.<br/>
+	 * The selector container is sequentially filled with All items positions, items of
+	 * <i>skipViewType</i> are not selected even if they were.
+	 * <br/><b>Note:</b> All changed items are invalidated and rebound, with notifications
+	 * coalesced into ranges.
 	 *
 	 * @param skipViewType ViewType for which we don't want selection
 	 */
 	public void selectAll(int skipViewType) {
-		Log.v(TAG, "selectAll");
-		selectedItems = new ArrayList<Integer>(getItemCount());
-		for (int i = 0; i < getItemCount(); i++) {
-			if (getItemViewType(i) == skipViewType) continue;
-			selectedItems.add(i);
-			Log.v(TAG, "selectAll notifyItemChanged on position " + i);
-			notifyItemChanged(i);
+		selectAll(true, skipViewType);
+	}
+
+	private void selectAll(boolean skip, int skipViewType) {
+		if (DesignConfig.DEBUG_RECYCLER_VIEW) {
+			Log.v(TAG, "selectAll");
+		}
+		final int count = getItemCount();
+		// Positions out of the items are not kept, like a new selection.
+		if (selectedItems.length() > count) {
+			selectedItems.clear(count, selectedItems.length());
+		}
+		if (!skip) {
+			setSelectionRange(0, count, true);
+			return;
+		}
+
+		int rangeStart = -1;
+		for (int i = 0; i < count; i++) {
+			boolean selected = getItemViewType(i) != skipViewType;
+			boolean changed = selectedItems.get(i) != selected;
+			if (changed) {
+				selectedItems.set(i, selected);
+				if (rangeStart < 0) rangeStart = i;
+			} else if (rangeStart >= 0) {
+				notifyItemRangeChanged(rangeStart, i - rangeStart);
+				rangeStart = -1;
+			}
+		}
+		if (rangeStart >= 0) {
+			notifyItemRangeChanged(rangeStart, count - rangeStart);
+		}
+	}
+
+	/**
+	 * Select the items in given range, the part out of the items is ignored.
+	 *
+	 * @param positionStart Position of the first item to select.
+	 * @param itemCount Number of items to select.
+	 */
+	public void selectRange(int positionStart, int itemCount) {
+		setSelectionRange(positionStart, itemCount, true);
+	}
+
+	/**
+	 * Clear the selection of items in given range, the part out of the items is ignored.
+	 *
+	 * @param positionStart Position of the first item to clear.
+	 * @param itemCount Number of items to clear.
+	 */
+	public void clearRange(int positionStart, int itemCount) {
+		setSelectionRange(positionStart, itemCount, false);
+	}
+
+	private void setSelectionRange(int positionStart, int itemCount, boolean selected) {
+		if (positionStart < 0 || itemCount <= 0) return;
+		final int end = positionStart + Math.min(itemCount, getItemCount() - positionStart);
+		if (end <= positionStart) return;
+
+		// Notify only runs that actually changed.
+		int i = positionStart;
+		while (i < end) {
+			int runStart = selected ?
+					selectedItems.nextClearBit(i) :
+					selectedItems.nextSetBit(i);
+			if (runStart < 0 || runStart >= end) break;
+			int runEnd = selected ?
+					selectedItems.nextSetBit(runStart) :
+					selectedItems.nextClearBit(runStart);
+			if (runEnd < 0 || runEnd > end) runEnd = end;
+
+			selectedItems.set(runStart, runEnd, selected);
+			notifyItemRangeChanged(runStart, runEnd - runStart);
+			i = runEnd;
 		}
 	}
 
 	/**
-	 * Clear the selection status for all items one by one and it doesn't stop animations in the items.
+	 * Clear the selection status for all items and it doesn't stop animations in the items.
 	 * <p/>
-	 * <b>Note 1:</b> Items are invalidated and rebound!<br/>
-	 * <b>Note 2:</b> This method use java.util.Iterator to avoid java.util.ConcurrentModificationException.
+	 * <b>Note:</b> Selected items are invalidated and rebound, with notifications coalesced
+	 * into ranges!
 	 */
 	public void clearSelection() {
-		Iterator<Integer> iterator = selectedItems.iterator();
-		while (iterator.hasNext()) {
+		int start = selectedItems.nextSetBit(0);
+		while (start >= 0) {
 			//The notification is done only on items that are currently selected.
-			int i = iterator.next();
-			iterator.remove();
-			Log.v(TAG, "clearSelection notifyItemChanged on position " + i);
-			notifyItemChanged(i);
+			int end = selectedItems.nextClearBit(start);
+			if (DesignConfig.DEBUG_RECYCLER_VIEW) {
+				Log.v(TAG, "clearSelection notifyItemRangeChanged on positions [" +
+						start + ", " + end + ")");
+			}
+			notifyItemRangeChanged(start, end - start);
+			start = selectedItems.nextSetBit(end);
 		}
+		selectedItems.clear();
 	}
 
 	/**
@@ -194,16 +271,24 @@ public abstract class SelectableAdapter<VH extends ViewHolder> extends RecyclerV
 	 * @return Selected items count
 	 */
 	public int getSelectedItemCount() {
-		return selectedItems.size();
+		return selectedItems.cardinality();
 	}
 
 	/**
 	 * Indicates the list of selected items.
+	 * <p/>
+	 * The list is a snapshot of the selection and can not be modified, it's not updated
+	 * when the selection changes. Change the selection with {@link #toggleSelection(int)},
+	 * {@link #selectRange(int, int)}, {@link #clearRange(int, int)} and their kin.
 	 *
-	 * @return List of selected items ids
+	 * @return Unmodifiable list of selected items positions, in ascending order
 	 */
 	public List<Integer> getSelectedItems() {
-		return selectedItems;
+		List<Integer> items = new ArrayList<>(selectedItems.cardinality());
+		for (int i = selectedItems.nextSetBit(0); i >= 0; i = selectedItems.nextSetBit(i + 1)) {
+			items.add(i);
+		}
+		return Collections.unmodifiableList(items);
 	}
 
 	/**
@@ -212,7 +297,7 @@ public abstract class SelectableAdapter<VH extends ViewHolder> extends RecyclerV
 	 * @param outState Current state
 	 */
 	public void onSaveInstanceState(Bundle outState) {
-		outState.putIntegerArrayList(TAG, selectedItems);
+		outState.putLongArray(KEY_SELECTION, selectedItems.toLongArray());
 	}
 
 	/**
@@ -221,7 +306,20 @@ public abstract class SelectableAdapter<VH extends ViewHolder> extends RecyclerV
 	 * @param savedInstanceState Previous state
 	 */
 	public void onRestoreInstanceState(Bundle savedInstanceState) {
-		selectedItems = savedInstanceState.getIntegerArrayList(TAG);
+		long[] words = savedInstanceState.getLongArray(KEY_SELECTION);
+		if (words != null) {
+			selectedItems = BitSet.valueOf(words);
+			return;
+		}
+
+		// State saved by older versions, as a list of positions.
+		List<Integer> items = savedInstanceState.getIntegerArrayList(TAG);
+		selectedItems = new BitSet();
+		if (items != null) {
+			for (Integer item : items) {
+				selectedItems.set(item);
+			}
+		}
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2016 Mobvoi Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ticwear.design.widget;
+
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+
+import com.mobvoi.ticwear.view.SidePanelEventDispatcher.SuperCallback;
+
+import ticwear.design.DesignConfig;
+
+/**
+ * Routes side panel tickle events of a {@link com.mobvoi.ticwear.view.SidePanelEventDispatcher}
+ * through its own target and the super dispatch.
+ * <p/>
+ * The step that handles {@link MotionEvent#ACTION_DOWN} is cached for the gesture, so the
+ * following events go straight to it, instead of trying the own target and walking the
+ * super dispatch again on every event. The cache is dropped on {@link #invalidate()}, e.g.
+ * when hierarchy or focus changes, and the rest of the gesture tries both steps as usual.
+ * <p/>
+ * When enabled, move events handled by the own target are batched into one event per
+ * frame, with the samples in between kept as history. Batched moves never fall back to
+ * the super dispatch.
+ * <p/>
+ * Dispatch count and latency are counted for profiling.
+ */
+public class SidePanelEventRouter implements Choreographer.FrameCallback {
+
+    private static final String TAG = "SidePanelRouter";
+
+    /**
+     * The own target of a dispatcher.
+     */
+    public interface Target {
+        /**
+         * @return true if the event is handled.
+         */
+        boolean onSidePanelEvent(MotionEvent event);
+    }
+
+    private static final int ROUTE_NONE = 0;
+    private static final int ROUTE_TARGET = 1;
+    private static final int ROUTE_SUPER = 2;
+
+    private int mRoute = ROUTE_NONE;
+
+    private boolean mBatchMoves;
+    @Nullable
+    private MotionEvent mPendingMove;
+    @Nullable
+    private Target mPendingTarget;
+
+    private long mDispatchCount;
+    private long mTotalDispatchNanos;
+    private long mMaxDispatchNanos;
+    private long mMaxInputLatencyMillis;
+
+    /**
+     * Batch move events handled by the own target into one event per frame. A batched move
+     * is never offered to the super dispatch, so only enable for targets that consume every
+     * event of a gesture they handled, and read history of events, like
+     * {@link android.view.VelocityTracker}.
+     */
+    public void setMoveBatchingEnabled(boolean enabled) {
+        if (!enabled) {
+            flushPendingMove();
+        }
+        mBatchMoves = enabled;
+    }
+
+    public boolean isMoveBatchingEnabled() {
+        return mBatchMoves;
+    }
+
+    /**
+     * Dispatch the event to the cached step of current gesture, or try the target then the
+     * super dispatch.
+     *
+     * @param event The tickle event.
+     * @param target The own target, or null if only super dispatch is used.
+     * @param superCallback The super dispatch.
+     * @return true if the event is handled.
+     */
+    public boolean route(MotionEvent event, @Nullable Target target,
+                         @NonNull SuperCallback superCallback) {
+        final long start = System.nanoTime();
+        final int action = event.getActionMasked();
+
+        if (action != MotionEvent.ACTION_MOVE) {
+            flushPendingMove();
+        }
+
+        final boolean handled;
+        if (action == MotionEvent.ACTION_DOWN) {
+            mRoute = ROUTE_NONE;
+            if (target != null && target.onSidePanelEvent(event)) {
+                mRoute = ROUTE_TARGET;
+                handled = true;
+            } else if (superCallback.superDispatchTouchSidePanelEvent(event)) {
+                mRoute = ROUTE_SUPER;
+                handled = true;
+            } else {
+                handled = false;
+            }
+        } else if (mRoute == ROUTE_TARGET && target != null) {
+            if (action == MotionEvent.ACTION_MOVE && mBatchMoves && event.getPointerCount() == 1) {
+                batchMove(event, target);
+                handled = true;
+            } else {
+                handled = target.onSidePanelEvent(event) ||
+                        superCallback.superDispatchTouchSidePanelEvent(event);
+            }
+        } else if (mRoute == ROUTE_SUPER) {
+            handled = superCallback.superDispatchTouchSidePanelEvent(event);
+        } else {
+            // Not resolved, or invalidated, in this gesture.
+            handled = (target != null && target.onSidePanelEvent(event)) ||
+                    superCallback.superDispatchTouchSidePanelEvent(event);
+        }
+
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mRoute = ROUTE_NONE;
+        }
+
+        countDispatch(event, start);
+        return handled;
+    }
+
+    /**
+     * Drop the cached step of current gesture, and deliver the batched move if any.
+     * Call when hierarchy or focus changes.
+     */
+    public void invalidate() {
+        flushPendingMove();
+        mRoute = ROUTE_NONE;
+    }
+
+    /**
+     * Drop the cached step and the batched move, e.g. when detached from window.
+     */
+    public void reset() {
+        cancelPendingMove();
+        mRoute = ROUTE_NONE;
+    }
+
+    public long getDispatchCount() {
+        return mDispatchCount;
+    }
+
+    /**
+     * @return Average time spent in one dispatch, in nanoseconds.
+     */
+    public long getAverageDispatchNanos() {
+        return mDispatchCount > 0 ? mTotalDispatchNanos / mDispatchCount : 0;
+    }
+
+    /**
+     * @return Max time spent in one dispatch, in nanoseconds.
+     */
+    public long getMaxDispatchNanos() {
+        return mMaxDispatchNanos;
+    }
+
+    /**
+     * @return Max time from an event happened to it was dispatched, in milliseconds.
+     */
+    public long getMaxInputLatencyMillis() {
+        return mMaxInputLatencyMillis;
+    }
+
+    public void resetCounters() {
+        mDispatchCount = 0;
+        mTotalDispatchNanos = 0;
+        mMaxDispatchNanos = 0;
+        mMaxInputLatencyMillis = 0;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        final MotionEvent move = mPendingMove;
+        final Target target = mPendingTarget;
+        mPendingMove = null;
+        mPendingTarget = null;
+        if (move != null && target != null) {
+            final long start = System.nanoTime();
+            target.onSidePanelEvent(move);
+            countDispatch(move, start);
+        }
+        if (move != null) {
+            move.recycle();
+        }
+    }
+
+    private void batchMove(MotionEvent event, Target target) {
+        if (mPendingMove == null) {
+            mPendingMove = MotionEvent.obtain(event);
+            mPendingTarget = target;
+            Choreographer.getInstance().postFrameCallback(this);
+            return;
+        }
+
+        // Append the samples as history of the pending move.
+        final MotionEvent pending = mPendingMove;
+        final int historySize = event.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            pending.addBatch(event.getHistoricalEventTime(h),
+                    event.getHistoricalX(h), event.getHistoricalY(h),
+                    event.getHistoricalPressure(h), event.getHistoricalSize(h),
+                    event.getMetaState());
+        }
+        pending.addBatch(event.getEventTime(), event.getX(), event.getY(),
+                event.getPressure(), event.getSize(), event.getMetaState());
+        mPendingTarget = target;
+    }
+
+    private void flushPendingMove() {
+        if (mPendingMove != null) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            doFrame(0);
+        }
+    }
+
+    private void cancelPendingMove() {
+        if (mPendingMove != null) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            mPendingMove.recycle();
+            mPendingMove = null;
+            mPendingTarget = null;
+        }
+    }
+
+    private void countDispatch(MotionEvent event, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        final long latency = SystemClock.uptimeMillis() - event.getEventTime();
+        mDispatchCount++;
+        mTotalDispatchNanos += nanos;
+        if (nanos > mMaxDispatchNanos) {
+            mMaxDispatchNanos = nanos;
+        }
+        if (latency > mMaxInputLatencyMillis) {
+            mMaxInputLatencyMillis = latency;
+        }
+        if (DesignConfig.DEBUG_SIDE_PANEL) {
+            Log.v(TAG, "dispatch " + MotionEvent.actionToString(event.getActionMasked()) +
+                    " in " + nanos + "ns, latency " + latency + "ms");
+        }
+    }
+}
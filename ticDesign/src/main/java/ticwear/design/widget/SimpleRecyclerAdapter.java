@@ -21,8 +21,10 @@ import android.content.Context;
 import android.net.Uri;
 import android.support.annotation.IdRes;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
 import android.util.Log;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -44,6 +46,12 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
 
     static final String TAG = "SimpleRA";
 
+    private static final int DATA_MAPS = 0;
+    private static final int DATA_ROWS = 1;
+    private static final int DATA_COLUMNS = 2;
+
+    private static final int IMAGE_CACHE_SIZE = 64;
+
     private final LayoutInflater mInflater;
 
     private int[] mTo;
@@ -51,10 +59,17 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
     private ViewBinder mViewBinder;
     private ViewHolderCreator mViewHolderCreator;
 
-    private List<? extends Map<String, ?>> mData;
+    private final int mDataType;
+    private List<?> mData;
+    private Object[][] mColumns;
 
     private int mResource;
 
+    /**
+     * Parsed values of image strings, either an Integer resource or an Uri.
+     */
+    private LruCache<String, Object> mImageCache;
+
     /**
      * Constructor
      *
@@ -72,6 +87,7 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
      */
     public SimpleRecyclerAdapter(Context context, List<? extends Map<String, ?>> data,
                                  @LayoutRes int resource, String[] from, @IdRes int[] to) {
+        mDataType = DATA_MAPS;
         mData = data;
         mResource = resource;
         mFrom = from;
@@ -80,12 +96,89 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
         setHasStableIds(true);
     }
 
+    /**
+     * Constructor with typed rows.
+     *
+     * @param context The context where the View associated with this SimpleAdapter is running
+     * @param rows A List of Rows. Each entry in the List corresponds to one row in the list.
+     *        Column i of a row is bound to the i-th view in "to".
+     * @param resource Resource identifier of a view layout that defines the views for this list
+     *        item. The layout file should include at least those named views defined in "to"
+     * @param to The views that should display columns of each row.
+     * @see #setColumnKeys(String[])
+     */
+    public SimpleRecyclerAdapter(Context context, List<? extends Row> rows,
+                                 @LayoutRes int resource, @IdRes int[] to) {
+        mDataType = DATA_ROWS;
+        mData = rows;
+        mResource = resource;
+        mTo = to;
+        mInflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+        setHasStableIds(true);
+    }
+
+    /**
+     * Constructor with columnar data.
+     *
+     * @param context The context where the View associated with this SimpleAdapter is running
+     * @param columns Arrays of column values, all of the same length. columns[i][position] is
+     *        bound to the i-th view in "to".
+     * @param resource Resource identifier of a view layout that defines the views for this list
+     *        item. The layout file should include at least those named views defined in "to"
+     * @param to The views that should display the columns.
+     * @see #setColumnKeys(String[])
+     */
+    public SimpleRecyclerAdapter(Context context, Object[][] columns,
+                                 @LayoutRes int resource, @IdRes int[] to) {
+        if (columns.length != to.length) {
+            throw new IllegalArgumentException("columns count " + columns.length +
+                    " mismatch views count " + to.length);
+        }
+        for (Object[] column : columns) {
+            if (column.length != columns[0].length) {
+                throw new IllegalArgumentException("columns should have the same length");
+            }
+        }
+        mDataType = DATA_COLUMNS;
+        mColumns = columns;
+        mResource = resource;
+        mTo = to;
+        mInflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+        setHasStableIds(true);
+    }
+
+    /**
+     * Set keys of the columns for typed rows or columnar data, so the bound values can
+     * also be looked up by key through {@link ViewHolder#getBindingData(String)}.
+     * Data of Maps always uses its "from" keys.
+     *
+     * @param from Keys of the columns, in the same order as "to", or null.
+     */
+    public void setColumnKeys(@Nullable String[] from) {
+        if (mDataType == DATA_MAPS) {
+            throw new IllegalStateException("Data of Maps uses its \"from\" keys.");
+        }
+        if (from != null && from.length != mTo.length) {
+            throw new IllegalArgumentException("keys count " + from.length +
+                    " mismatch views count " + mTo.length);
+        }
+        mFrom = from;
+        notifyDataSetChanged();
+    }
+
     /**
      * Get the data item associated with the specified position in the data set.
      *
      * @see android.widget.Adapter#getItem(int)
      */
     public Object getItem(int position) {
+        if (mDataType == DATA_COLUMNS) {
+            final Object[] values = new Object[mColumns.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = mColumns[i][position];
+            }
+            return values;
+        }
         return mData.get(position);
     }
 
@@ -117,6 +210,9 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
      */
     @Override
     public int getItemCount() {
+        if (mDataType == DATA_COLUMNS) {
+            return mColumns.length == 0 ? 0 : mColumns[0].length;
+        }
         return mData.size();
     }
 
@@ -125,72 +221,93 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
     }
 
     private void bindView(ViewHolder holder, int position) {
-        final Map dataSet = mData.get(position);
-        if (dataSet == null) {
+        final Object row = mDataType == DATA_COLUMNS ? null : mData.get(position);
+        if (row == null && mDataType != DATA_COLUMNS) {
             return;
         }
 
         if (DesignConfig.DEBUG_RECYCLER_VIEW) {
-            Log.v(TAG, holder.getLogPrefix() + "bind to " + dataSet + holder.getLogSuffix());
+            Log.v(TAG, holder.getLogPrefix() + "bind to " +
+                    (row != null ? row : "position " + position) + holder.getLogSuffix());
         }
 
-        holder.dataSet = dataSet;
+        holder.dataSet = mDataType == DATA_MAPS ? (Map) row : null;
+        holder.from = mFrom;
 
         final ViewBinder binder = mViewBinder;
-        final String[] from = mFrom;
-        final int[] to = mTo;
-        final int count = to.length;
+        final int count = mTo.length;
 
         for (int i = 0; i < count; i++) {
             final View v = holder.views[i];
-            if (v != null) {
-                final Object data = dataSet.get(from[i]);
-                String text = data == null ? "" : data.toString();
-                if (text == null) {
-                    text = "";
-                }
+            if (v == null) {
+                continue;
+            }
 
-                boolean bound = false;
-                if (binder != null) {
-                    bound = binder.setViewValue(v, data, text);
-                }
+            final Object data = getColumnValue(row, position, i);
+            holder.values[i] = data;
+
+            if (binder != null && binder.setViewValue(v, data, textOf(data))) {
+                continue;
+            }
 
-                if (!bound) {
-                    if (v instanceof Checkable) {
-                        if (data instanceof Boolean) {
-                            ((Checkable) v).setChecked((Boolean) data);
-                        } else if (v instanceof TextView) {
-                            // Note: keep the instanceof TextView check at the bottom of these
-                            // ifs since a lot of views are TextViews (e.g. CheckBoxes).
-                            setViewText((TextView) v, text);
-                        } else {
-                            throw new IllegalStateException(v.getClass().getName() +
-                                    " should be bound to a Boolean, not a " +
-                                    (data == null ? "<unknown type>" : data.getClass()));
-                        }
-                    } else if (v instanceof TextView) {
-                        // Note: keep the instanceof TextView check at the bottom of these
-                        // ifs since a lot of views are TextViews (e.g. CheckBoxes).
-                        if (data instanceof Integer) {
-                            setViewText((TextView) v, (Integer) data);
-                        } else {
-                            setViewText((TextView) v, text);
-                        }
-                    } else if (v instanceof ImageView) {
-                        if (data instanceof Integer) {
-                            setViewImage((ImageView) v, (Integer) data);
-                        } else {
-                            setViewImage((ImageView) v, text);
-                        }
+            // Kinds are resolved once in ViewHolder, so no instanceof chain on views here.
+            switch (holder.kinds[i]) {
+                case ViewHolder.KIND_CHECKABLE_TEXT:
+                    if (data instanceof Boolean) {
+                        ((Checkable) v).setChecked((Boolean) data);
                     } else {
-                        throw new IllegalStateException(v.getClass().getName() + " is not a " +
-                                " view that can be bounds by this SimpleAdapter");
+                        setViewText((TextView) v, textOf(data));
                     }
-                }
+                    break;
+                case ViewHolder.KIND_CHECKABLE:
+                    if (data instanceof Boolean) {
+                        ((Checkable) v).setChecked((Boolean) data);
+                    } else {
+                        throw new IllegalStateException(v.getClass().getName() +
+                                " should be bound to a Boolean, not a " +
+                                (data == null ? "<unknown type>" : data.getClass()));
+                    }
+                    break;
+                case ViewHolder.KIND_TEXT:
+                    if (data instanceof Integer) {
+                        setViewText((TextView) v, (Integer) data);
+                    } else {
+                        setViewText((TextView) v, textOf(data));
+                    }
+                    break;
+                case ViewHolder.KIND_IMAGE:
+                    if (data instanceof Integer) {
+                        setViewImage((ImageView) v, (Integer) data);
+                    } else {
+                        setViewImage((ImageView) v, textOf(data));
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException(v.getClass().getName() + " is not a " +
+                            " view that can be bounds by this SimpleAdapter");
             }
         }
     }
 
+    private Object getColumnValue(Object row, int position, int column) {
+        switch (mDataType) {
+            case DATA_ROWS:
+                return ((Row) row).getColumn(column);
+            case DATA_COLUMNS:
+                return mColumns[column][position];
+            default:
+                return ((Map) row).get(mFrom[column]);
+        }
+    }
+
+    private static String textOf(Object data) {
+        if (data instanceof String) {
+            return (String) data;
+        }
+        String text = data == null ? "" : data.toString();
+        return text == null ? "" : text;
+    }
+
     /**
      * Returns the {@link ViewBinder} used to bind data to views.
      *
@@ -257,10 +374,23 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
      * @see #setViewImage(ImageView, int)
      */
     public void setViewImage(ImageView v, String value) {
-        try {
-            v.setImageResource(Integer.parseInt(value));
-        } catch (NumberFormatException nfe) {
-            v.setImageURI(Uri.parse(value));
+        if (mImageCache == null) {
+            mImageCache = new LruCache<>(IMAGE_CACHE_SIZE);
+        }
+        Object image = mImageCache.get(value);
+        if (image == null) {
+            try {
+                image = Integer.parseInt(value);
+            } catch (NumberFormatException nfe) {
+                image = Uri.parse(value);
+            }
+            mImageCache.put(value, image);
+        }
+
+        if (image instanceof Integer) {
+            v.setImageResource((Integer) image);
+        } else {
+            v.setImageURI((Uri) image);
         }
     }
 
@@ -319,22 +449,86 @@ public class SimpleRecyclerAdapter extends RecyclerView.Adapter<SimpleRecyclerAd
         boolean setViewValue(android.view.View view, Object data, String textRepresentation);
     }
 
+    /**
+     * A typed row of data, used in place of Map to avoid a lookup for each column.
+     */
+    public interface Row {
+
+        /**
+         * @param column Index of the column, matches the index of view in "to".
+         * @return Value to bind to the view of given column.
+         */
+        Object getColumn(int column);
+    }
+
     public static class ViewHolder extends FocusableLinearLayoutManager.ViewHolder {
 
+        static final int KIND_UNSUPPORTED = 0;
+        static final int KIND_CHECKABLE_TEXT = 1;
+        static final int KIND_CHECKABLE = 2;
+        static final int KIND_TEXT = 3;
+        static final int KIND_IMAGE = 4;
+
         private final View[] views;
+        private final int[] kinds;
+        private final Object[] values;
         private Map dataSet;
+        private String[] from;
 
         public ViewHolder(View itemView, final int[] to) {
             super(itemView);
             final int count = to.length;
             views = new View[count];
+            kinds = new int[count];
+            values = new Object[count];
             for (int i = 0; i < count; i++) {
                 views[i] = itemView.findViewById(to[i]);
+                kinds[i] = resolveKind(views[i]);
+            }
+        }
+
+        private static int resolveKind(View v) {
+            // Note: keep the instanceof TextView check at the bottom of these
+            // ifs since a lot of views are TextViews (e.g. CheckBoxes).
+            if (v instanceof Checkable) {
+                return v instanceof TextView ? KIND_CHECKABLE_TEXT : KIND_CHECKABLE;
+            } else if (v instanceof TextView) {
+                return KIND_TEXT;
+            } else if (v instanceof ImageView) {
+                return KIND_IMAGE;
             }
+            return KIND_UNSUPPORTED;
         }
 
+        /**
+         * @param key Key of the column, in the Map of the row, or in the column keys.
+         * @return The bound value of given key.
+         * @throws IllegalStateException if the data is bound by column index without keys,
+         *         use {@link #getBindingData(int)} instead.
+         * @see SimpleRecyclerAdapter#setColumnKeys(String[])
+         */
         protected Object getBindingData(String key) {
-            return dataSet.get(key);
+            if (dataSet != null) {
+                return dataSet.get(key);
+            }
+            if (from == null) {
+                throw new IllegalStateException("Data is bound without column keys, " +
+                        "get it by column index instead.");
+            }
+            for (int i = 0; i < from.length; i++) {
+                if (from[i].equals(key)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param column Index of the column, matches the index of view in "to".
+         * @return The bound value of given column.
+         */
+        protected Object getBindingData(int column) {
+            return values[column];
         }
     }
 
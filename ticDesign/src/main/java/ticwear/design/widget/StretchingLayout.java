@@ -76,6 +76,7 @@ import ticwear.design.R;
  * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_expandedTitleMarginStart
  * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_expandedTitleMarginEnd
  * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_expandedTitleMarginBottom
+ * @attr ref ticwear.design.R.styleable#CollapsingToolbarLayout_titleScalingTexture
  */
 public class StretchingLayout extends FrameLayout {
 
@@ -140,6 +141,10 @@ public class StretchingLayout extends FrameLayout {
 
         mCollapsingTitleEnabled = a.getBoolean(
                 R.styleable.CollapsingToolbarLayout_tic_titleEnabled, true);
+        if (a.hasValue(R.styleable.CollapsingToolbarLayout_tic_titleScalingTexture)) {
+            mCollapsingTextHelper.setScalingTextureEnabled(a.getBoolean(
+                    R.styleable.CollapsingToolbarLayout_tic_titleScalingTexture, false));
+        }
         setTitle(a.getText(R.styleable.CollapsingToolbarLayout_android_title));
 
         // First load the default text appearances
@@ -328,6 +333,31 @@ public class StretchingLayout extends FrameLayout {
         return mCollapsingTitleEnabled;
     }
 
+    /**
+     * Sets whether the title is drawn as a scaled bitmap of the expanded title while it
+     * shrinks and grows, instead of drawing the text at each size. Drawing a bitmap is cheaper
+     * for long titles that change size often, at the cost of keeping a bitmap of the title.
+     * Defaults to false on platforms that can scale text on hardware accelerated canvas.
+     *
+     * @see #isTitleScalingTextureEnabled()
+     *
+     * @attr ref R.styleable#CollapsingToolbarLayout_titleScalingTexture
+     */
+    public void setTitleScalingTextureEnabled(boolean enabled) {
+        mCollapsingTextHelper.setScalingTextureEnabled(enabled);
+    }
+
+    /**
+     * Returns whether the title is drawn as a scaled bitmap of the expanded title.
+     *
+     * @see #setTitleScalingTextureEnabled(boolean)
+     *
+     * @attr ref R.styleable#CollapsingToolbarLayout_titleScalingTexture
+     */
+    public boolean isTitleScalingTextureEnabled() {
+        return mCollapsingTextHelper.isScalingTextureEnabled();
+    }
+
     /**
      * Sets the text color and size for the collapsed title from the specified
      * TextAppearance resource.
@@ -38,8 +38,10 @@ public class SubscribedScrollView extends TicklableScrollView {
 
     private OnScrollListener mOnScrollListener;
 
-    private final FlingChecker mFlingChecker = new FlingChecker();
-    private boolean isInFling = false;
+    // Mirrors the fling and spring back of ScrollView with the same parameters, to report
+    // idle state without polling. Programmatic smooth scrolls of ScrollView are final and
+    // not mirrored, so they don't report fling state.
+    private final FlingDriver mFlingDriver;
 
     public SubscribedScrollView(Context context) {
         this(context, null);
@@ -55,6 +57,7 @@ public class SubscribedScrollView extends TicklableScrollView {
 
     public SubscribedScrollView(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
         super(context, attrs, defStyleAttr, defStyleRes);
+        mFlingDriver = new FlingDriver(context, new FlingCallback());
     }
 
     public void setOnScrollListener(OnScrollListener onScrollListener) {
@@ -69,30 +72,66 @@ public class SubscribedScrollView extends TicklableScrollView {
         }
     }
 
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if (ev.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            // ScrollView aborts its fling on touch down.
+            mFlingDriver.cancel();
+        }
+        return super.onInterceptTouchEvent(ev);
+    }
+
     @Override
     public boolean onTouchEvent(MotionEvent ev) {
-        switch (ev.getAction()) {
+        final int action = ev.getActionMasked();
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                mFlingDriver.cancel();
+                break;
             case MotionEvent.ACTION_MOVE:
-                removeCallbacks(mFlingChecker);
                 reportScrollStateChange(OnScrollListener.SCROLL_STATE_TOUCH_SCROLL);
                 break;
-            case MotionEvent.ACTION_CANCEL:
-            case MotionEvent.ACTION_UP:
-                if (!isInFling) {
-                    removeCallbacks(mFlingChecker);
-                    mFlingChecker.run();
-                }
-                break;
         }
-        return super.onTouchEvent(ev);
+        final boolean handled = super.onTouchEvent(ev);
+        if ((action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) &&
+                !mFlingDriver.isFlinging()) {
+            // Released without a fling, ScrollView springs back if over scrolled.
+            mFlingDriver.springBack(getScrollX(), getScrollY(), 0, 0, 0, getScrollRange());
+            if (!mFlingDriver.isFlinging()) {
+                reportScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
+            }
+        }
+        return handled;
     }
 
     @Override
     public void fling(int velocityY) {
-        reportScrollStateChange(OnScrollListener.SCROLL_STATE_FLING);
-        isInFling = true;
-        mFlingChecker.run();
         super.fling(velocityY);
+        if (getChildCount() > 0) {
+            // Same parameters as ScrollView#fling.
+            final int height = getHeight() - getPaddingBottom() - getPaddingTop();
+            final int bottom = getChildAt(0).getHeight();
+            mFlingDriver.fling(getScrollX(), getScrollY(), 0, velocityY, 0, 0, 0,
+                    Math.max(0, bottom - height), 0, height / 2);
+        }
+        if (!mFlingDriver.isFlinging()) {
+            reportScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
+        }
+    }
+
+    private int getScrollRange() {
+        if (getChildCount() == 0) {
+            return 0;
+        }
+        // Same range as ScrollView#getScrollRange.
+        final int height = getHeight() - getPaddingBottom() - getPaddingTop();
+        return Math.max(0, getChildAt(0).getHeight() - height);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mFlingDriver.abort();
+        super.onDetachedFromWindow();
     }
 
     @Override
@@ -160,26 +199,21 @@ public class SubscribedScrollView extends TicklableScrollView {
         void onScroll(SubscribedScrollView view, int l, int t, int oldl, int oldt);
     }
 
-    private class FlingChecker implements Runnable {
-
-        // in milliseconds, same as fling checker in AbsListView
-        private static final int FLYWHEEL_TIMEOUT = 40;
+    private class FlingCallback implements FlingDriver.Callback {
 
-        private int mPreviousPosition = Integer.MIN_VALUE;
+        @Override
+        public void onFlingStart(FlingDriver driver) {
+            reportScrollStateChange(OnScrollListener.SCROLL_STATE_FLING);
+        }
 
         @Override
-        public void run() {
-            removeCallbacks(this);
+        public void onFlingUpdate(FlingDriver driver, int currX, int currY) {
+            // Scroll updates are reported by onScrollChanged.
+        }
 
-            int position = getScrollY();
-            // TODO: there is a chance to make new position equal to old, but still in fling.
-            if (mPreviousPosition == position) {
-                isInFling = false;
-                reportScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
-            } else {
-                mPreviousPosition = getScrollY();
-                postDelayed(this, FLYWHEEL_TIMEOUT);
-            }
+        @Override
+        public void onFlingIdle(FlingDriver driver) {
+            reportScrollStateChange(OnScrollListener.SCROLL_STATE_IDLE);
         }
     }
 
@@ -18,6 +18,7 @@ package ticwear.design.widget;
 
 import android.annotation.TargetApi;
 import android.content.Context;
+import android.graphics.Rect;
 import android.os.Bundle;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -46,6 +47,19 @@ public class TicklableRecyclerView extends RecyclerView
     private boolean mSkipNestedScroll;
     private int[] consumedScroll;
 
+    private final SidePanelEventRouter mSidePanelEventRouter = new SidePanelEventRouter();
+
+    private final SidePanelEventRouter.Target mSidePanelEventTarget =
+            new SidePanelEventRouter.Target() {
+                @Override
+                public boolean onSidePanelEvent(MotionEvent event) {
+                    if (mTicklableLayoutManager == null) {
+                        return dispatchTouchEvent(event);
+                    }
+                    return mTicklableLayoutManager.dispatchTouchSidePanelEvent(event);
+                }
+            };
+
     public TicklableRecyclerView(Context context) {
         this(context, null);
     }
@@ -92,6 +106,10 @@ public class TicklableRecyclerView extends RecyclerView
     @Override
     public void setLayoutManager(LayoutManager layout) {
         super.setLayoutManager(layout);
+        // Called by RecyclerView's constructor for app:layoutManager, before our fields are set.
+        if (mSidePanelEventRouter != null) {
+            mSidePanelEventRouter.invalidate();
+        }
 
         if (isInEditMode()) {
             return;
@@ -138,13 +156,26 @@ public class TicklableRecyclerView extends RecyclerView
 
     @Override
     public boolean dispatchTouchSidePanelEvent(MotionEvent ev, @NonNull SuperCallback superCallback) {
-        if (mTicklableLayoutManager == null) {
-            return dispatchTouchEvent(ev) || superCallback.superDispatchTouchSidePanelEvent(ev);
-        }
+        return mSidePanelEventRouter.route(ev, mSidePanelEventTarget, superCallback);
+    }
+
+    /**
+     * @return The router of side panel events, for its dispatch counters.
+     */
+    public SidePanelEventRouter getSidePanelEventRouter() {
+        return mSidePanelEventRouter;
+    }
 
-        return mTicklableLayoutManager.dispatchTouchSidePanelEvent(ev) ||
-                superCallback.superDispatchTouchSidePanelEvent(ev);
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        mSidePanelEventRouter.invalidate();
+    }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mSidePanelEventRouter.reset();
     }
 
     public int getScrollOffset() {
@@ -17,6 +17,7 @@
 package ticwear.design.widget;
 
 import android.content.Context;
+import android.graphics.Rect;
 import android.support.annotation.NonNull;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
@@ -33,6 +34,8 @@ public class TicklableScrollView extends ScrollView implements SidePanelEventDis
 
     private SidePanelEventDispatcher mSidePanelEventDispatcher;
 
+    private final SidePanelEventRouter mSidePanelEventRouter = new SidePanelEventRouter();
+
     public TicklableScrollView(Context context) {
         this(context, null);
     }
@@ -48,16 +51,30 @@ public class TicklableScrollView extends ScrollView implements SidePanelEventDis
     public TicklableScrollView(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
         super(context, attrs, defStyleAttr, defStyleRes);
 
+        final SidePanelEventRouter.Target target = new SidePanelEventRouter.Target() {
+            @Override
+            public boolean onSidePanelEvent(MotionEvent event) {
+                return dispatchTouchEvent(event);
+            }
+        };
         setSidePanelEventDispatcher(new SidePanelEventDispatcher() {
             @Override
             public boolean dispatchTouchSidePanelEvent(MotionEvent event, @NonNull SuperCallback superCallback) {
-                return dispatchTouchEvent(event) || superCallback.superDispatchTouchSidePanelEvent(event);
+                return mSidePanelEventRouter.route(event, target, superCallback);
             }
         });
     }
 
     public void setSidePanelEventDispatcher(SidePanelEventDispatcher dispatcher) {
         this.mSidePanelEventDispatcher = dispatcher;
+        mSidePanelEventRouter.invalidate();
+    }
+
+    /**
+     * @return The router used by the default side panel event dispatcher.
+     */
+    public SidePanelEventRouter getSidePanelEventRouter() {
+        return mSidePanelEventRouter;
     }
 
     @Override
@@ -66,4 +83,16 @@ public class TicklableScrollView extends ScrollView implements SidePanelEventDis
                 mSidePanelEventDispatcher.dispatchTouchSidePanelEvent(event, superCallback);
     }
 
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        mSidePanelEventRouter.invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mSidePanelEventRouter.reset();
+    }
+
 }
@@ -17,8 +17,10 @@
 package ticwear.design.widget;
 
 import android.os.Looper;
+import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
 import android.util.LongSparseArray;
+import android.util.SparseArray;
 import android.util.SparseBooleanArray;
 import android.view.ActionMode;
 import android.view.HapticFeedbackConstants;
@@ -33,6 +35,9 @@ import android.widget.AbsListView.MultiChoiceModeListener;
 import android.widget.Checkable;
 import android.widget.ListAdapter;
 
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+
 public class TrackSelectionAdapterWrapper<VH extends RecyclerView.ViewHolder>
         extends RecyclerView.Adapter<VH> {
 
@@ -88,6 +93,17 @@ public class TrackSelectionAdapterWrapper<VH extends RecyclerView.ViewHolder>
      */
     LongSparseArray<Integer> mCheckedIdStates;
 
+    /**
+     * Holders currently bound, keyed by the position they were bound to.
+     * Used to find the view of a position without scanning children.
+     */
+    final SparseArray<VH> mBoundHolders = new SparseArray<>();
+
+    /**
+     * Reverse of {@link #mBoundHolders}, the position each bound holder is indexed by.
+     */
+    private final IdentityHashMap<VH, Integer> mBoundPositions = new IdentityHashMap<>();
+
     public TrackSelectionAdapterWrapper(RecyclerView.Adapter<VH> adapter) {
         this.mAdapter = adapter;
 
@@ -138,6 +154,7 @@ public class TrackSelectionAdapterWrapper<VH extends RecyclerView.ViewHolder>
     @Override
     public void onBindViewHolder(VH viewHolder, int position) {
         mAdapter.onBindViewHolder(viewHolder, position);
+        indexBoundHolder(viewHolder, position);
         if (mChoiceMode != AbsListView.CHOICE_MODE_NONE) {
             // Set selected state; use a state list drawable to style the view
             View itemView = viewHolder.itemView;
@@ -145,6 +162,29 @@ public class TrackSelectionAdapterWrapper<VH extends RecyclerView.ViewHolder>
         }
     }
 
+    @Override
+    public void onViewRecycled(VH holder) {
+        Integer position = mBoundPositions.remove(holder);
+        if (position != null) {
+            mBoundHolders.remove(position);
+        }
+        mAdapter.onViewRecycled(holder);
+    }
+
+    private void indexBoundHolder(VH holder, int position) {
+        // A holder may be rebound to another position without being recycled.
+        Integer oldPosition = mBoundPositions.put(holder, position);
+        if (oldPosition != null && oldPosition != position) {
+            mBoundHolders.remove(oldPosition);
+        }
+        // And another holder may still be indexed by this position.
+        VH oldHolder = mBoundHolders.get(position);
+        if (oldHolder != null && oldHolder != holder) {
+            mBoundPositions.remove(oldHolder);
+        }
+        mBoundHolders.put(position, holder);
+    }
+
     private void updateCheckState(View itemView, int position) {
         if (itemView instanceof Checkable) {
             ((Checkable) itemView).setChecked(mCheckStates.get(position));
@@ -173,14 +213,21 @@ public class TrackSelectionAdapterWrapper<VH extends RecyclerView.ViewHolder>
         if (mAttachedRecyclerView == null || Looper.getMainLooper() != Looper.myLooper()) {
             return null;
         }
-        for (int i = 0; i < mAttachedRecyclerView.getChildCount(); i++) {
-            View child = mAttachedRecyclerView.getChildAt(i);
-            if (mAttachedRecyclerView.getChildAdapterPosition(child) == position) {
-                return child;
+        VH holder = mBoundHolders.get(position);
+        if (holder == null) {
+            return null;
+        }
+        // Positions may shift after structure changes, drop the stale entry.
+        int adapterPosition = holder.getAdapterPosition();
+        if (adapterPosition != position) {
+            if (adapterPosition != RecyclerView.NO_POSITION) {
+                mBoundHolders.remove(position);
+                mBoundPositions.remove(holder);
             }
+            return null;
         }
 
-        return null;
+        return holder.itemView;
     }
 
     @Override
@@ -201,6 +248,8 @@ public class TrackSelectionAdapterWrapper<VH extends RecyclerView.ViewHolder>
     @Override
     public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
         mAttachedRecyclerView = null;
+        mBoundHolders.clear();
+        mBoundPositions.clear();
         if (mChoiceActionMode != null) {
             mChoiceActionMode.finish();
             mChoiceActionMode = null;
@@ -427,6 +476,186 @@ public class TrackSelectionAdapterWrapper<VH extends RecyclerView.ViewHolder>
         }
     }
 
+    /**
+     * Sets the checked state of a range of positions. Both checked states are
+     * updated in one pass, and listeners and adapter are notified once. This is
+     * only valid if the choice mode has been set to {@link AbsListView#CHOICE_MODE_MULTIPLE}
+     * or {@link AbsListView#CHOICE_MODE_MULTIPLE_MODAL}.
+     *
+     * @param positionStart The first item whose checked state is to be changed
+     * @param itemCount Number of items to change
+     * @param value The new checked state for the items
+     */
+    public void setItemsChecked(int positionStart, int itemCount, boolean value) {
+        if (!isMultipleChoiceMode() || positionStart < 0 || itemCount <= 0) {
+            return;
+        }
+
+        if (value && mAttachedRecyclerView != null) {
+            startSelectionModeIfNeeded(mAttachedRecyclerView);
+        }
+
+        final int end = Math.min(positionStart + itemCount, getItemCount());
+        final boolean updateIds = mCheckedIdStates != null && hasStableIds();
+        int changedStart = -1;
+        int changedEnd = -1;
+        for (int position = positionStart; position < end; position++) {
+            if (mCheckStates.get(position) == value) {
+                continue;
+            }
+            final long id = updateIds || mChoiceActionMode != null ? getItemId(position) : 0;
+            applyItemChecked(position, id, value, updateIds);
+            if (changedStart < 0) {
+                changedStart = position;
+            }
+            changedEnd = position;
+        }
+
+        if (changedStart >= 0) {
+            dispatchItemsChecked(changedStart, changedEnd);
+        }
+    }
+
+    /**
+     * Sets the checked state of items with given ids. Adapter is scanned once to
+     * resolve the ids, so the adapter must have stable IDs. This is only valid if the
+     * choice mode has been set to {@link AbsListView#CHOICE_MODE_MULTIPLE} or
+     * {@link AbsListView#CHOICE_MODE_MULTIPLE_MODAL}.
+     *
+     * @param ids The ids of items whose checked state is to be changed
+     * @param value The new checked state for the items
+     */
+    public void setItemsChecked(long[] ids, boolean value) {
+        if (!isMultipleChoiceMode() || !hasStableIds() || ids == null || ids.length == 0) {
+            return;
+        }
+
+        if (value && mAttachedRecyclerView != null) {
+            startSelectionModeIfNeeded(mAttachedRecyclerView);
+        }
+
+        final LongSparseArray<Boolean> targets = new LongSparseArray<>(ids.length);
+        for (long id : ids) {
+            targets.put(id, Boolean.TRUE);
+        }
+
+        final boolean updateIds = mCheckedIdStates != null;
+        final int count = getItemCount();
+        int remaining = targets.size();
+        int changedStart = -1;
+        int changedEnd = -1;
+        for (int position = 0; position < count && remaining > 0; position++) {
+            final long id = getItemId(position);
+            if (targets.get(id) == null) {
+                continue;
+            }
+            remaining--;
+            if (mCheckStates.get(position) == value) {
+                continue;
+            }
+            applyItemChecked(position, id, value, updateIds);
+            if (changedStart < 0) {
+                changedStart = position;
+            }
+            changedEnd = position;
+        }
+
+        if (changedStart >= 0) {
+            dispatchItemsChecked(changedStart, changedEnd);
+        }
+    }
+
+    /**
+     * Checks the items at given positions, with their ids already known, e.g. read in
+     * one pass over a cursor, so the adapter is not asked for them. This is only valid
+     * if the choice mode has been set to {@link AbsListView#CHOICE_MODE_MULTIPLE} or
+     * {@link AbsListView#CHOICE_MODE_MULTIPLE_MODAL}.
+     *
+     * @param positions The positions of items to check
+     * @param ids The id of each set position, in ascending position order, or null to
+     *            get ids from the adapter
+     */
+    public void setItemsChecked(BitSet positions, @Nullable long[] ids) {
+        if (!isMultipleChoiceMode() || positions == null || positions.isEmpty()) {
+            return;
+        }
+
+        if (mAttachedRecyclerView != null) {
+            startSelectionModeIfNeeded(mAttachedRecyclerView);
+        }
+
+        final boolean updateIds = mCheckedIdStates != null && hasStableIds();
+        final int count = getItemCount();
+        int changedStart = -1;
+        int changedEnd = -1;
+        int index = 0;
+        for (int position = positions.nextSetBit(0); position >= 0 && position < count;
+             position = positions.nextSetBit(position + 1), index++) {
+            if (mCheckStates.get(position)) {
+                continue;
+            }
+            final long id;
+            if (ids != null) {
+                id = ids[index];
+            } else {
+                id = updateIds || mChoiceActionMode != null ? getItemId(position) : 0;
+            }
+            applyItemChecked(position, id, true, updateIds);
+            if (changedStart < 0) {
+                changedStart = position;
+            }
+            changedEnd = position;
+        }
+
+        if (changedStart >= 0) {
+            dispatchItemsChecked(changedStart, changedEnd);
+        }
+    }
+
+    private boolean isMultipleChoiceMode() {
+        return mChoiceMode == AbsListView.CHOICE_MODE_MULTIPLE ||
+                mChoiceMode == AbsListView.CHOICE_MODE_MULTIPLE_MODAL;
+    }
+
+    private void applyItemChecked(int position, long id, boolean value, boolean updateIds) {
+        if (value) {
+            mCheckStates.put(position, true);
+            if (updateIds) {
+                mCheckedIdStates.put(id, position);
+            }
+            mCheckedItemCount++;
+        } else {
+            mCheckStates.delete(position);
+            if (updateIds) {
+                mCheckedIdStates.delete(id);
+            }
+            mCheckedItemCount--;
+        }
+        if (mChoiceActionMode != null) {
+            mMultiChoiceModeCallback.onItemCheckedStateChanged(mChoiceActionMode,
+                    position, id, value);
+        }
+    }
+
+    private void dispatchItemsChecked(int changedStart, int changedEnd) {
+        // Update bound views in place, and only rebind when some of them are unknown.
+        // Holders are picked by their current position, the indexed one may have shifted.
+        boolean missed = mAttachedRecyclerView == null || Looper.getMainLooper() != Looper.myLooper();
+        for (int i = mBoundHolders.size() - 1; i >= 0 && !missed; i--) {
+            VH holder = mBoundHolders.valueAt(i);
+            int position = holder.getAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) {
+                missed = true;
+            } else if (position >= changedStart && position <= changedEnd) {
+                updateCheckState(holder.itemView, position);
+            }
+        }
+        if (missed && canNotifyChange()) {
+            notifyItemRangeChanged(changedStart, changedEnd - changedStart + 1);
+        }
+        fireOnSelected(null);
+    }
+
     private boolean startSelectionModeIfNeeded(View view) {
         if (mChoiceMode == AbsListView.CHOICE_MODE_MULTIPLE_MODAL &&
                 mChoiceActionMode != null) {
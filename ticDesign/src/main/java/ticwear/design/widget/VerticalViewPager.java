@@ -27,6 +27,7 @@ import android.support.v4.view.accessibility.AccessibilityRecordCompat;
 import android.support.v4.widget.EdgeEffectCompat;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.FocusFinder;
 import android.view.Gravity;
 import android.view.KeyEvent;
@@ -65,6 +66,9 @@ public class VerticalViewPager extends ViewGroup {
 
     private static final int MIN_FLING_VELOCITY = 400; // dips
 
+    // Time budget of one idle frame to instantiate offscreen pages.
+    private static final long IDLE_POPULATE_BUDGET_NANOS = 4000000; // 4ms
+
     private static final int[] LAYOUT_ATTRS = new int[]{
             android.R.attr.layout_gravity
     };
@@ -130,6 +134,14 @@ public class VerticalViewPager extends ViewGroup {
     private boolean mPopulatePending;
     private int mOffscreenPageLimit = DEFAULT_OFFSCREEN_PAGES;
 
+    // Offscreen pages are instantiated in idle frames instead of the scroll path.
+    private boolean mIdlePopulateEnabled = true;
+    private boolean mIdlePopulateScheduled;
+    private boolean mHasDeferredPages;
+    private boolean mInIdlePopulate;
+    private boolean mSettlePopulate;
+    private long mIdlePopulateDeadline;
+
     private boolean mIsBeingDragged;
     private boolean mIsUnableToDrag;
     private boolean mIgnoreGutter;
@@ -211,7 +223,18 @@ public class VerticalViewPager extends ViewGroup {
     private final Runnable mEndScrollRunnable = new Runnable() {
         public void run() {
             setScrollState(SCROLL_STATE_IDLE);
-            populate();
+            populateWithinBudget();
+        }
+    };
+
+    private final Choreographer.FrameCallback mIdlePopulateCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mIdlePopulateScheduled = false;
+            // Scrolling again, will be rescheduled when it goes idle.
+            if (mScrollState == SCROLL_STATE_IDLE) {
+                populateWithinBudget();
+            }
         }
     };
 
@@ -272,6 +295,7 @@ public class VerticalViewPager extends ViewGroup {
     @Override
     protected void onDetachedFromWindow() {
         removeCallbacks(mEndScrollRunnable);
+        cancelIdlePopulate();
         super.onDetachedFromWindow();
     }
 
@@ -281,6 +305,9 @@ public class VerticalViewPager extends ViewGroup {
         }
 
         mScrollState = newState;
+        if (newState == SCROLL_STATE_IDLE && mHasDeferredPages) {
+            scheduleIdlePopulate();
+        }
         if (mPageTransformer != null) {
             // PageTransformers can do complex things that benefit from hardware layers.
             enableLayers(newState != SCROLL_STATE_IDLE);
@@ -443,7 +470,10 @@ public class VerticalViewPager extends ViewGroup {
             }
             requestLayout();
         } else {
+            // Pages around the target of a smooth scroll are not needed until it settles.
+            mSettlePopulate = smoothScroll;
             populate(item);
+            mSettlePopulate = false;
             scrollToItem(item, smoothScroll, velocity, dispatchSelected);
         }
     }
@@ -592,6 +622,67 @@ public class VerticalViewPager extends ViewGroup {
         }
     }
 
+    /**
+     * Set whether offscreen pages should be instantiated in idle frames after the
+     * pager settles, instead of synchronously while dragging or settling. Pages
+     * needed to fill the visible area are always instantiated immediately.
+     * Enabled by default.
+     *
+     * @param enabled true to defer offscreen pages to idle frames.
+     */
+    public void setIdlePopulateEnabled(boolean enabled) {
+        if (mIdlePopulateEnabled != enabled) {
+            mIdlePopulateEnabled = enabled;
+            if (!enabled && mHasDeferredPages) {
+                cancelIdlePopulate();
+                populate();
+            }
+        }
+    }
+
+    public boolean isIdlePopulateEnabled() {
+        return mIdlePopulateEnabled;
+    }
+
+    private void scheduleIdlePopulate() {
+        if (!mIdlePopulateScheduled) {
+            mIdlePopulateScheduled = true;
+            Choreographer.getInstance().postFrameCallback(mIdlePopulateCallback);
+        }
+    }
+
+    private void cancelIdlePopulate() {
+        if (mIdlePopulateScheduled) {
+            mIdlePopulateScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(mIdlePopulateCallback);
+        }
+    }
+
+    /**
+     * Populate with a time budget. Pages not instantiated in budget are left
+     * to the next frame.
+     */
+    private void populateWithinBudget() {
+        mInIdlePopulate = true;
+        mIdlePopulateDeadline = System.nanoTime() + IDLE_POPULATE_BUDGET_NANOS;
+        try {
+            populate();
+        } finally {
+            mInIdlePopulate = false;
+        }
+    }
+
+    /**
+     * Whether an offscreen page should be left out of this populate pass.
+     */
+    private boolean shouldDeferOffscreenPage(boolean deferOffscreen, int createdPages) {
+        if (deferOffscreen) {
+            return true;
+        }
+        // Make progress of at least one page each idle frame.
+        return mInIdlePopulate && createdPages > 0 && System.nanoTime() > mIdlePopulateDeadline;
+    }
+
     /**
      * Set the margin between pages.
      *
@@ -843,6 +934,11 @@ public class VerticalViewPager extends ViewGroup {
 
         mAdapter.startUpdate(this);
 
+        final boolean deferOffscreen = mIdlePopulateEnabled && !mInIdlePopulate &&
+                (mScrollState != SCROLL_STATE_IDLE || mSettlePopulate);
+        boolean deferredPages = false;
+        int createdPages = 0;
+
         final int pageLimit = mOffscreenPageLimit;
         final int startPos = Math.max(0, mCurItem - pageLimit);
         final int N = mAdapter.getCount();
@@ -908,8 +1004,13 @@ public class VerticalViewPager extends ViewGroup {
                     extraHeightTop += ii.heightFactor;
                     itemIndex--;
                     ii = itemIndex >= 0 ? mItems.get(itemIndex) : null;
+                } else if (extraHeightTop >= topHeightNeeded &&
+                        mIdlePopulateEnabled && shouldDeferOffscreenPage(deferOffscreen, createdPages)) {
+                    // Visible area is filled, leave this page to idle frames.
+                    deferredPages = true;
                 } else {
                     ii = addNewItem(pos, itemIndex + 1);
+                    createdPages++;
                     extraHeightTop += ii.heightFactor;
                     curIndex++;
                     ii = itemIndex >= 0 ? mItems.get(itemIndex) : null;
@@ -940,8 +1041,13 @@ public class VerticalViewPager extends ViewGroup {
                         extraHeightBottom += ii.heightFactor;
                         itemIndex++;
                         ii = itemIndex < mItems.size() ? mItems.get(itemIndex) : null;
+                    } else if (extraHeightBottom >= bottomHeightNeeded &&
+                            mIdlePopulateEnabled && shouldDeferOffscreenPage(deferOffscreen, createdPages)) {
+                        // Visible area is filled, leave this page to idle frames.
+                        deferredPages = true;
                     } else {
                         ii = addNewItem(pos, itemIndex);
+                        createdPages++;
                         itemIndex++;
                         extraHeightBottom += ii.heightFactor;
                         ii = itemIndex < mItems.size() ? mItems.get(itemIndex) : null;
@@ -963,6 +1069,11 @@ public class VerticalViewPager extends ViewGroup {
 
         mAdapter.finishUpdate(this);
 
+        mHasDeferredPages = deferredPages;
+        if (deferredPages && mScrollState == SCROLL_STATE_IDLE) {
+            scheduleIdlePopulate();
+        }
+
         // Check width measurement of current pages and drawing sort order.
         // Update LayoutParams as needed.
         final int childCount = getChildCount();
@@ -1241,9 +1352,17 @@ public class VerticalViewPager extends ViewGroup {
     }
 
     ItemInfo infoForPosition(int position) {
-        for (int i = 0; i < mItems.size(); i++) {
-            ItemInfo ii = mItems.get(i);
-            if (ii.position == position) {
+        // mItems is kept sorted by position.
+        int low = 0;
+        int high = mItems.size() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final ItemInfo ii = mItems.get(mid);
+            if (ii.position < position) {
+                low = mid + 1;
+            } else if (ii.position > position) {
+                high = mid - 1;
+            } else {
                 return ii;
             }
         }
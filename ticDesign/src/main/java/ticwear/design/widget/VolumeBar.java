@@ -59,6 +59,7 @@ public class VolumeBar extends FrameLayout {
     private int mProgressStep = 10;
     // 当数值小于（大于）10时隐藏减号（加号）
     private Paint mPaint;
+    private Paint mValuePaint;
     // bar中图片image的半径（乘2的值为宽和高）
     private int mDrawableRadius;
     // thumb背景
@@ -78,6 +79,8 @@ public class VolumeBar extends FrameLayout {
 
     // 数值改变时回到监听器的onVolumeChanged()
     private OnVolumeChangedListener mListener;
+    // 用户开始、结束调节时的监听器
+    private OnVolumeTrackingListener mTrackingListener;
 
     private SeekBar mSeekbar;
 
@@ -86,6 +89,20 @@ public class VolumeBar extends FrameLayout {
 
     private boolean needButtonStateChange;
 
+    // 以下几何数据只在进度、尺寸变化时计算，绘制时直接使用
+    private float mTrackStart;
+    private float mTrackEnd;
+    private float mTrackCenterY;
+    private float mValueEnd;
+    private int mThumbLeft;
+    private int mThumbTop;
+    private int mThumbRight;
+    private int mThumbBottom;
+    // 加减号是否可见，通过drawable的alpha控制，避免重新布局
+    private boolean mMinGlyphVisible = true;
+    private boolean mMaxGlyphVisible = true;
+    private int mGlyphAlpha = FULL_ALPHA;
+
     public VolumeBar(Context context) {
         this(context, null);
     }
@@ -131,6 +148,9 @@ public class VolumeBar extends FrameLayout {
         mPaint.setStrokeJoin(Paint.Join.ROUND);    // set the join to round you want
         mPaint.setStrokeCap(Paint.Cap.ROUND);      // set the paint cap to round too
         mPaint.setAntiAlias(true);
+        mPaint.setColor(mBgColor);
+        mValuePaint = new Paint(mPaint);
+        updateValueColor();
 
         // 读取需要的背景图
         Resources.Theme t = context.getApplicationContext().getTheme();
@@ -138,14 +158,17 @@ public class VolumeBar extends FrameLayout {
             mVolumeDrawable = getResources().getDrawable(thumbImageId, t);
             mNoVolumeDrawable = getResources().getDrawable(thumbLeftImageId, t);
         }
-        mMinButtonDrawable = getResources().getDrawable(R.drawable.tic_ic_minus_32px, t);
-        mMaxButtonDrawable = getResources().getDrawable(R.drawable.tic_ic_plus_32px, t);
+        // 加减号通过alpha隐藏，需要mutate以免影响其他实例
+        mMinButtonDrawable = getResources().getDrawable(R.drawable.tic_ic_minus_32px, t).mutate();
+        mMaxButtonDrawable = getResources().getDrawable(R.drawable.tic_ic_plus_32px, t).mutate();
 
         // 设定各按钮监听器
         mMinButton = (ProgressBarButton) findViewById(R.id.min);
         mMinButton.setDefaultImageSize(mDrawableRadius * 2);
+        mMinButton.setImageDrawable(mMinButtonDrawable);
 
         mMaxButton = (ProgressBarButton) findViewById(R.id.max);
+        mMaxButton.setImageDrawable(mMaxButtonDrawable);
 
         mSeekbar = (SeekBar) findViewById(R.id.seekbar);
         mSeekbar.setProgress(mProgress);
@@ -166,10 +189,16 @@ public class VolumeBar extends FrameLayout {
 
             @Override
             public void onStartTrackingTouch(SeekBar seekBar) {
+                if (mTrackingListener != null) {
+                    mTrackingListener.onStartTrackingTouch(VolumeBar.this);
+                }
             }
 
             @Override
             public void onStopTrackingTouch(SeekBar seekBar) {
+                if (mTrackingListener != null) {
+                    mTrackingListener.onStopTrackingTouch(VolumeBar.this);
+                }
             }
         });
 
@@ -184,12 +213,27 @@ public class VolumeBar extends FrameLayout {
         mListener = listener;
     }
 
+    /**
+     * 用户通过拖动或按钮调节音量时的开始、结束回调
+     */
+    public interface OnVolumeTrackingListener {
+        void onStartTrackingTouch(VolumeBar volumeBar);
+
+        void onStopTrackingTouch(VolumeBar volumeBar);
+    }
+
+    public void setOnVolumeTrackingListener(OnVolumeTrackingListener listener) {
+        mTrackingListener = listener;
+    }
+
     public void setDrawable(Drawable drawable) {
         mVolumeDrawable = drawable;
+        invalidate();
     }
 
     public void setBgColor(@ColorInt int bgColor) {
         mBgColor = bgColor;
+        mPaint.setColor(mBgColor);
         invalidate();
     }
 
@@ -200,6 +244,7 @@ public class VolumeBar extends FrameLayout {
     public void setValueColor(ColorStateList valueColor) {
         if (valueColor != null) {
             mValueColor = valueColor;
+            updateValueColor();
             invalidate();
         }
     }
@@ -225,6 +270,7 @@ public class VolumeBar extends FrameLayout {
         else if (alpha < 0) alpha = 0;
 
         mDisabledAlpha = alpha;
+        needButtonStateChange = true;
         invalidate();
     }
 
@@ -239,6 +285,7 @@ public class VolumeBar extends FrameLayout {
         if (mListener != null) {
             mListener.onVolumeChanged(this, mProgress, false);
         }
+        updateGeometry();
         invalidate();
     }
 
@@ -256,6 +303,7 @@ public class VolumeBar extends FrameLayout {
         if (mListener != null) {
             mListener.onVolumeChanged(this, mProgress, false);
         }
+        updateGeometry();
         invalidate();
     }
 
@@ -294,6 +342,7 @@ public class VolumeBar extends FrameLayout {
             if (mListener != null) {
                 mListener.onVolumeChanged(this, mProgress, false);
             }
+            updateGeometry();
             invalidate();
         }
     }
@@ -315,14 +364,18 @@ public class VolumeBar extends FrameLayout {
             if (mListener != null) {
                 mListener.onVolumeChanged(this, mProgress, false);
             }
+            updateGeometry();
             invalidate();
         }
     }
 
-    private ProgressBarButton.TouchListener mMinButtonListener = new ProgressBarButton.TouchListener() {
+    private ProgressBarButton.TouchListener mMinButtonListener = new ProgressBarButton.CancelableTouchListener() {
         @Override
         public void onDown() {
             mProgressStart = mProgress;
+            if (mTrackingListener != null) {
+                mTrackingListener.onStartTrackingTouch(VolumeBar.this);
+            }
         }
 
         @Override
@@ -331,6 +384,16 @@ public class VolumeBar extends FrameLayout {
                 int det = Math.min(mProgressStep, mProgressStep - (mProgressStart - mProgress));
                 adjustVolume(-det, false);
             }
+            if (mTrackingListener != null) {
+                mTrackingListener.onStopTrackingTouch(VolumeBar.this);
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            if (mTrackingListener != null) {
+                mTrackingListener.onStopTrackingTouch(VolumeBar.this);
+            }
         }
 
         @Override
@@ -339,10 +402,13 @@ public class VolumeBar extends FrameLayout {
         }
     };
 
-    private ProgressBarButton.TouchListener mMaxButtonListener = new ProgressBarButton.TouchListener() {
+    private ProgressBarButton.TouchListener mMaxButtonListener = new ProgressBarButton.CancelableTouchListener() {
         @Override
         public void onDown() {
             mProgressStart = mProgress;
+            if (mTrackingListener != null) {
+                mTrackingListener.onStartTrackingTouch(VolumeBar.this);
+            }
         }
 
         @Override
@@ -351,6 +417,16 @@ public class VolumeBar extends FrameLayout {
                 int det = Math.min(mProgressStep, mProgressStep - (mProgress - mProgressStart));
                 adjustVolume(det, false);
             }
+            if (mTrackingListener != null) {
+                mTrackingListener.onStopTrackingTouch(VolumeBar.this);
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            if (mTrackingListener != null) {
+                mTrackingListener.onStopTrackingTouch(VolumeBar.this);
+            }
         }
 
         @Override
@@ -375,20 +451,11 @@ public class VolumeBar extends FrameLayout {
         mMaxButton.setEnabled(isEnable);
 
         // 更改颜色，若为enable状态，则完全不透明，若disable则半透明
-        if (isEnable) {
-            mPaint.setAlpha(FULL_ALPHA);
-            mMinButtonDrawable.setAlpha(FULL_ALPHA);
-            mMaxButtonDrawable.setAlpha(FULL_ALPHA);
-            mNoVolumeDrawable.setAlpha(FULL_ALPHA);
-            mVolumeDrawable.setAlpha(FULL_ALPHA);
-        }
-        else {
-            mPaint.setAlpha(mDisabledAlpha);
-            mMinButtonDrawable.setAlpha(mDisabledAlpha);
-            mMaxButtonDrawable.setAlpha(mDisabledAlpha);
-            mNoVolumeDrawable.setAlpha(mDisabledAlpha);
-            mVolumeDrawable.setAlpha(mDisabledAlpha);
-        }
+        mGlyphAlpha = isEnable ? FULL_ALPHA : mDisabledAlpha;
+        mMinButtonDrawable.setAlpha(mMinGlyphVisible ? mGlyphAlpha : 0);
+        mMaxButtonDrawable.setAlpha(mMaxGlyphVisible ? mGlyphAlpha : 0);
+        mNoVolumeDrawable.setAlpha(mGlyphAlpha);
+        mVolumeDrawable.setAlpha(mGlyphAlpha);
         if (isEnable && isVisible) {
             mMinButton.setTouchListener(mMinButtonListener);
             mMaxButton.setTouchListener(mMaxButtonListener);
@@ -401,50 +468,85 @@ public class VolumeBar extends FrameLayout {
     @Override
     protected void drawableStateChanged() {
         super.drawableStateChanged();
+        updateValueColor();
         invalidate();
     }
 
-
     @Override
-    public void onDraw(Canvas canvas) {
-        if (needButtonStateChange) {
-            needButtonStateChange = false;
-            updateButtonState();
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGeometry();
+    }
+
+    private void updateValueColor() {
+        if (mValueColor != null) {
+            // 根据当前状态选择颜色
+            mValuePaint.setColor(mValueColor.getColorForState(getDrawableState(),
+                    mValueColor.getDefaultColor()));
         }
+    }
 
-        int radius = getHeight() / 2 - mTouchPadding;
-        int radiusWithPadding = radius + mTouchPadding;
+    /**
+     * 根据当前进度和尺寸计算轨道、thumb的位置，以及加减号是否可见
+     */
+    private void updateGeometry() {
+        final int width = getWidth();
+        final int radius = getHeight() / 2 - mTouchPadding;
+        final int radiusWithPadding = radius + mTouchPadding;
+        final float progressOffset = mProgress / 100.0f * (width - 2 * radiusWithPadding);
 
         mPaint.setStrokeWidth(2 * radius);
-//        mPaint.setPathEffect(new CornerPathEffect(radius));
-        mPaint.setColor(mBgColor);
+        mValuePaint.setStrokeWidth(2 * radius);
 
-        // 背景线
-        canvas.drawLine(radiusWithPadding, radiusWithPadding, getWidth() - radiusWithPadding, radiusWithPadding, mPaint);
-
-        // 根据当前状态选择颜色
-        mPaint.setColor(mValueColor.getColorForState(getDrawableState(), mValueColor.getDefaultColor()));
+        mTrackStart = radiusWithPadding;
+        mTrackEnd = width - radiusWithPadding;
+        mTrackCenterY = radiusWithPadding;
+        mValueEnd = radiusWithPadding + SMALL_FLOAT + progressOffset;
 
-        // 取值线
-        canvas.drawLine(radiusWithPadding, radiusWithPadding, radiusWithPadding + SMALL_FLOAT + mProgress / 100.0f * (getWidth() - 2 * radiusWithPadding), radiusWithPadding, mPaint);
+        mThumbLeft = (int) (radiusWithPadding + progressOffset - mDrawableRadius);
+        mThumbTop = radiusWithPadding - mDrawableRadius;
+        mThumbRight = (int) (radiusWithPadding + progressOffset + mDrawableRadius);
+        mThumbBottom = radiusWithPadding + mDrawableRadius;
 
         // 判断是否隐藏减号
-        float thumbleft = mTouchPadding + mProgress / 100.0f * (getWidth() - 2 * radiusWithPadding);
-        if (thumbleft < radiusWithPadding) {
-            mMinButton.setImageDrawable(null);
-        } else {
-            mMinButton.setImageDrawable(mMinButtonDrawable);
-        }
+        float thumbLeft = mTouchPadding + progressOffset;
+        setMinGlyphVisible(thumbLeft >= radiusWithPadding);
 
         // 判断是否隐藏加号
-        float thumbRight = mTouchPadding + 2 * radius + mProgress / 100.0f * (getWidth() - 2 * radiusWithPadding);
-        float buttonLeft = getWidth() - radiusWithPadding;
+        float thumbRight = mTouchPadding + 2 * radius + progressOffset;
+        float buttonLeft = width - radiusWithPadding;
+        setMaxGlyphVisible(thumbRight <= buttonLeft);
+    }
 
-        if (thumbRight > buttonLeft) {
-            mMaxButton.setImageDrawable(null);
-        } else {
-            mMaxButton.setImageDrawable(mMaxButtonDrawable);
+    private void setMinGlyphVisible(boolean visible) {
+        if (mMinGlyphVisible != visible) {
+            mMinGlyphVisible = visible;
+            mMinButtonDrawable.setAlpha(visible ? mGlyphAlpha : 0);
+            mMinButton.invalidate();
         }
+    }
+
+    private void setMaxGlyphVisible(boolean visible) {
+        if (mMaxGlyphVisible != visible) {
+            mMaxGlyphVisible = visible;
+            mMaxButtonDrawable.setAlpha(visible ? mGlyphAlpha : 0);
+            mMaxButton.invalidate();
+        }
+    }
+
+
+    @Override
+    public void onDraw(Canvas canvas) {
+        if (needButtonStateChange) {
+            needButtonStateChange = false;
+            updateButtonState();
+        }
+
+        // 背景线
+        canvas.drawLine(mTrackStart, mTrackCenterY, mTrackEnd, mTrackCenterY, mPaint);
+
+        // 取值线
+        canvas.drawLine(mTrackStart, mTrackCenterY, mValueEnd, mTrackCenterY, mValuePaint);
 
         // 设定thumb图片
         Drawable thumbBg;
@@ -454,10 +556,7 @@ public class VolumeBar extends FrameLayout {
             thumbBg = mVolumeDrawable;
         }
         if (thumbBg != null) {
-            thumbBg.setBounds((int) (radiusWithPadding + mProgress / 100.0f * (getWidth() - 2 * radiusWithPadding) - mDrawableRadius),
-                    radiusWithPadding - mDrawableRadius,
-                    (int) (radiusWithPadding + mProgress / 100.0f * (getWidth() - 2 * radiusWithPadding) + mDrawableRadius),
-                    radiusWithPadding + mDrawableRadius);
+            thumbBg.setBounds(mThumbLeft, mThumbTop, mThumbRight, mThumbBottom);
             thumbBg.draw(canvas);
         }
         super.onDraw(canvas);
@@ -472,6 +571,7 @@ public class VolumeBar extends FrameLayout {
         if (mListener != null) {
             mListener.onVolumeChanged(this, mProgress, true);
         }
+        updateGeometry();
         invalidate();
     }
 